@@ -1,8 +1,12 @@
 package com.example.copilot.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.CacheResolver;
@@ -12,6 +16,13 @@ import org.springframework.cache.interceptor.SimpleKeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Cache configuration for the application.
  * Enables caching with a simple concurrent map cache manager for development/testing.
@@ -21,6 +32,32 @@ import org.springframework.context.annotation.Configuration;
 @EnableCaching
 public class CacheConfig implements CachingConfigurer {
 
+    /**
+     * Caches wrapped with single-flight loading and stale-while-revalidate (see {@link CoalescingCache}).
+     * Hot read paths whose misses can stampede the database.
+     */
+    static final Set<String> COALESCING_CACHES = Set.of("product-details", "product-search");
+
+    @Value("${cache.coalescing.fresh-ttl-seconds:300}")
+    private long freshTtlSeconds;
+
+    @Value("${cache.coalescing.stale-ttl-seconds:600}")
+    private long staleTtlSeconds;
+
+    @Value("${cache.coalescing.max-entries:10000}")
+    private long maxEntries;
+
+    // Search keys combine the raw keyword with the page, so clients can create them at will
+    @Value("${cache.coalescing.search-max-entries:1000}")
+    private long searchMaxEntries;
+
+    // Background refreshes for stale entries; daemon threads so they never block shutdown
+    private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * Configures a simple in-memory cache manager using ConcurrentHashMap.
      * For production environments, consider using Redis, Hazelcast, or Caffeine.
@@ -28,13 +65,25 @@ public class CacheConfig implements CachingConfigurer {
     @Bean
     @Override
     public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                if (!COALESCING_CACHES.contains(name)) {
+                    return super.createConcurrentMapCache(name);
+                }
+                long capacity = "product-search".equals(name) ? searchMaxEntries : maxEntries;
+                return coalescingCache(name, Duration.ofSeconds(freshTtlSeconds), Duration.ofSeconds(staleTtlSeconds), capacity, refreshExecutor);
+            }
+        };
         
         // Pre-define cache names for better performance and explicit configuration
         cacheManager.setCacheNames(java.util.Arrays.asList(
             "product-details",      // Individual product lookups by ID
             "product-search",       // Product search results with filters
-            "category-details"      // Category lookups by ID
+            "product-facets",       // Facet counts per search filter (independent of page)
+            "category-details",     // Category lookups by ID
+            "category-lists",       // Root/subcategory lists and the full tree, derived from CategoryTree
+            "category-root-pages"   // Paged root category listings
         ));
         
         // Allow null values to be cached (useful for "not found" scenarios)
@@ -43,6 +92,20 @@ public class CacheConfig implements CachingConfigurer {
         return cacheManager;
     }
     
+    /**
+     * Coalescing cache over a store holding at most {@code maxEntries} entries, each dropped once it is
+     * past its stale window. Eviction runs on the calling thread, so the bound holds after every put.
+     */
+    static CoalescingCache coalescingCache(String name, Duration freshFor, Duration staleFor, long maxEntries, Executor refreshExecutor) {
+        ConcurrentMap<Object, Object> store = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(freshFor.plus(staleFor))
+            .executor(Runnable::run)
+            .build()
+            .asMap();
+        return new CoalescingCache(new ConcurrentMapCache(name, store, false), freshFor, staleFor, refreshExecutor);
+    }
+
     /**
      * Custom key generator for cache keys.
      * Uses the default SimpleKeyGenerator which creates keys based on method parameters.
@@ -0,0 +1,238 @@
+package com.example.copilot.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache decorator that adds single-flight loading and stale-while-revalidate to a plain cache.
+ *
+ * Used through {@code @Cacheable(sync = true)}, which routes misses to {@link #get(Object, Callable)}:
+ * - on a miss, only one caller per key runs the loader; concurrent callers wait for its result
+ * - entries older than {@code freshFor} are still served for up to {@code staleFor} while a single
+ *   background refresh runs
+ * - entries older than {@code freshFor + staleFor} are treated as misses and removed when read
+ *
+ * Entries that are never read again are not removed here; wrap a store that bounds its size and expires
+ * entries after {@code freshFor + staleFor} (see {@link CacheConfig}).
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private final Cache delegate;
+    private final Duration freshFor;
+    private final Duration staleFor;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on every evict/clear so a load that started before an invalidation does not re-insert stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    public CoalescingCache(Cache delegate, Duration freshFor, Duration staleFor, Executor refreshExecutor) {
+        this(delegate, freshFor, staleFor, refreshExecutor, Clock.systemUTC());
+    }
+
+    CoalescingCache(Cache delegate, Duration freshFor, Duration staleFor, Executor refreshExecutor, Clock clock) {
+        this.delegate = delegate;
+        this.freshFor = freshFor;
+        this.staleFor = staleFor;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Stored value plus the time it was loaded.
+     */
+    private record Entry(Object value, long loadedAtMillis) {
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = usableEntry(key);
+        return entry != null ? new SimpleValueWrapper(entry.value()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Entry entry = usableEntry(key);
+        if (entry == null) {
+            return null;
+        }
+        if (type != null && !type.isInstance(entry.value())) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + entry.value());
+        }
+        return (T) entry.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = usableEntry(key);
+        if (entry != null) {
+            if (age(entry) <= freshFor.toMillis()) {
+                hits.increment();
+            } else {
+                staleServed.increment();
+                refreshInBackground(key, valueLoader);
+            }
+            return (T) entry.value();
+        }
+        return loadCoalesced(key, valueLoader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadCoalesced(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        loads.increment();
+        long startGeneration = generation.get();
+        try {
+            T value = valueLoader.call();
+            putIfCurrent(key, value, startGeneration);
+            mine.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return; // a load or refresh for this key is already running
+        }
+        refreshes.increment();
+        long startGeneration = generation.get();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Object value = valueLoader.call();
+                    putIfCurrent(key, value, startGeneration);
+                    mine.complete(value);
+                } catch (Throwable ex) {
+                    log.warn("Background refresh of key '{}' in cache '{}' failed: {}", key, getName(), ex.getMessage());
+                    mine.completeExceptionally(ex);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, mine);
+            mine.cancel(false);
+        }
+    }
+
+    private void putIfCurrent(Object key, Object value, long startGeneration) {
+        if (value != null && generation.get() == startGeneration) {
+            put(key, value);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            delegate.evict(key);
+            return;
+        }
+        delegate.put(key, new Entry(value, clock.millis()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generation.incrementAndGet();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        return delegate.invalidate();
+    }
+
+    private Entry usableEntry(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null || !(wrapper.get() instanceof Entry entry)) {
+            return null;
+        }
+        if (age(entry) > freshFor.toMillis() + staleFor.toMillis()) {
+            // Not an invalidation, so the generation stays: an in-flight load may still store its value
+            delegate.evictIfPresent(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private long age(Entry entry) {
+        return clock.millis() - entry.loadedAtMillis();
+    }
+
+    public CoalescingStats getStats() {
+        return new CoalescingStats(getName(), hits.sum(), loads.sum(), coalesced.sum(), staleServed.sum(), refreshes.sum());
+    }
+
+    /**
+     * Counters for one coalescing cache.
+     *
+     * @param hits fresh entries served
+     * @param loads loader invocations on a miss (one per coalesced group)
+     * @param coalesced requests that waited for another caller's load instead of loading themselves
+     * @param staleServed expired entries served while a refresh ran
+     * @param refreshes background refreshes started
+     */
+    public record CoalescingStats(String cache, long hits, long loads, long coalesced, long staleServed, long refreshes) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.copilot.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes {@link CoalescingCache} counters as the {@code cache.coalescing.requests} metric,
+ * tagged by cache and outcome (hit, load, coalesced, stale, refresh).
+ */
+@Component
+@RequiredArgsConstructor
+public class CoalescingCacheMetrics implements MeterBinder {
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (CoalescingCache cache : coalescingCaches()) {
+            register(registry, cache, "hit", c -> c.getStats().hits());
+            register(registry, cache, "load", c -> c.getStats().loads());
+            register(registry, cache, "coalesced", c -> c.getStats().coalesced());
+            register(registry, cache, "stale", c -> c.getStats().staleServed());
+            register(registry, cache, "refresh", c -> c.getStats().refreshes());
+        }
+    }
+
+    /**
+     * Current counters of every coalescing cache.
+     */
+    public List<CoalescingCache.CoalescingStats> snapshot() {
+        return coalescingCaches().stream().map(CoalescingCache::getStats).toList();
+    }
+
+    private List<CoalescingCache> coalescingCaches() {
+        List<CoalescingCache> caches = new ArrayList<>();
+        for (String name : CacheConfig.COALESCING_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CoalescingCache coalescingCache) {
+                caches.add(coalescingCache);
+            }
+        }
+        return caches;
+    }
+
+    private void register(MeterRegistry registry, CoalescingCache cache, String outcome, ToDoubleFunction<CoalescingCache> counter) {
+        FunctionCounter.builder("cache.coalescing.requests", cache, counter)
+            .tag("cache", cache.getName())
+            .tag("outcome", outcome)
+            .description("Requests served by a single-flight cache, by outcome")
+            .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.copilot.config;
+
+import com.example.copilot.service.ProductRatingAggregator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the {@link ProductRatingAggregator} backlog as {@code review.rating.queue.depth}
+ * (products awaiting a flush) and {@code review.rating.staleness} (age of the oldest pending delta).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductRatingMetrics implements MeterBinder {
+
+    private final ProductRatingAggregator aggregator;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("review.rating.queue.depth", aggregator, ProductRatingAggregator::getQueueDepth)
+            .description("Products with review rating deltas not yet written")
+            .register(registry);
+        Gauge.builder("review.rating.staleness", aggregator, a -> a.getStalenessMillis() / 1000.0)
+            .description("Age of the oldest unapplied review rating delta")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+}
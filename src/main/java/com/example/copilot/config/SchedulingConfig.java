@@ -0,0 +1,12 @@
+package com.example.copilot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (cache warm-up checkpoints and similar maintenance tasks).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
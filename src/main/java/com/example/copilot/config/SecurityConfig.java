@@ -81,6 +81,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/v1/categories/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/v1/categories/**").hasRole("ADMIN")
                 
+                // Bulk review migration - Admin only
+                .requestMatchers(HttpMethod.POST, "/api/reviews/bulk").hasRole("ADMIN")
+                
                 // Dashboard endpoints - Admin only
                 .requestMatchers("/api/v1/dashboard/**").hasRole("ADMIN")
                 
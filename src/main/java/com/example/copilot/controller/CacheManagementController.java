@@ -1,11 +1,15 @@
 package com.example.copilot.controller;
 
+import com.example.copilot.config.CoalescingCache;
+import com.example.copilot.config.CoalescingCacheMetrics;
 import com.example.copilot.service.CacheManagementService;
+import com.example.copilot.service.CacheWarmingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,6 +23,7 @@ import java.util.Map;
 public class CacheManagementController {
 
     private final CacheManagementService cacheManagementService;
+    private final CoalescingCacheMetrics coalescingCacheMetrics;
 
     /**
      * Gets all cache names.
@@ -30,6 +35,33 @@ public class CacheManagementController {
         return ResponseEntity.ok(cacheManagementService.getCacheNames());
     }
 
+    /**
+     * Gets single-flight counters (hits, loads, coalesced requests, stale serves, refreshes)
+     * for the coalescing caches.
+     * 
+     * @return counters per cache
+     */
+    @GetMapping("/coalescing")
+    public ResponseEntity<List<CoalescingCache.CoalescingStats>> getCoalescingStats() {
+        return ResponseEntity.ok(coalescingCacheMetrics.snapshot());
+    }
+
+    /**
+     * Warms product caches: with the given product ids, or with the currently hottest
+     * product ids and searches when no ids are supplied.
+     * 
+     * @param productIds optional product ids to preload
+     * @return counts of warmed entries
+     */
+    @PostMapping("/warmup")
+    public ResponseEntity<CacheWarmingService.WarmupResult> warmup(
+            @RequestParam(required = false) List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return ResponseEntity.ok(cacheManagementService.warmHotKeys());
+        }
+        return ResponseEntity.ok(cacheManagementService.preloadProductCache(productIds));
+    }
+
     /**
      * Clears a specific cache.
      * 
@@ -1,6 +1,9 @@
 package com.example.copilot.controller;
 
 import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.dto.CategoryProductCountDTO;
+import com.example.copilot.dto.CategoryTreeNodeDTO;
+import com.example.copilot.service.CategoryProductCountService;
 import com.example.copilot.service.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +20,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
     private final CategoryService categoryService;
+    private final CategoryProductCountService categoryProductCountService;
+    private final ContentETags contentETags;
 
     @PostMapping
     public ResponseEntity<CategoryDTO> create(@Valid @RequestBody CategoryDTO categoryDTO) {
@@ -36,28 +41,54 @@ public class CategoryController {
 
     @GetMapping("/{id}")
     public ResponseEntity<CategoryDTO> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.findById(id));
+        return contentETags.ok(categoryService.findById(id));
     }
 
     @GetMapping("/roots")
     public ResponseEntity<List<CategoryDTO>> getRootCategories() {
-        return ResponseEntity.ok(categoryService.findAllRootCategories());
+        return contentETags.ok(categoryService.findAllRootCategories());
+    }
+
+    /**
+     * The whole category hierarchy as nested nodes, served from the in-memory category tree.
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryTreeNodeDTO>> getTree() {
+        return contentETags.ok(categoryService.getCategoryTree());
+    }
+
+    /**
+     * Direct and subtree product counts for every category in one response, from in-memory counters.
+     */
+    @GetMapping("/product-counts")
+    public ResponseEntity<List<CategoryProductCountDTO>> getProductCounts() {
+        return contentETags.ok(categoryProductCountService.getCounts());
+    }
+
+    @GetMapping("/{id}/breadcrumb")
+    public ResponseEntity<List<CategoryDTO>> getBreadcrumb(@PathVariable Long id) {
+        return contentETags.ok(categoryService.findBreadcrumb(id));
+    }
+
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<List<Long>> getDescendantIds(@PathVariable Long id) {
+        return contentETags.ok(categoryService.findDescendantIds(id));
     }
 
     @GetMapping("/subcategories/{parentId}")
     public ResponseEntity<List<CategoryDTO>> getSubcategories(@PathVariable Long parentId) {
-        return ResponseEntity.ok(categoryService.findSubcategories(parentId));
+        return contentETags.ok(categoryService.findSubcategories(parentId));
     }
 
     @GetMapping("/search")
     public ResponseEntity<Page<CategoryDTO>> search(
             @RequestParam(required = false) String keyword,
             @PageableDefault Pageable pageable) {
-        return ResponseEntity.ok(categoryService.searchCategories(keyword, pageable));
+        return contentETags.ok(categoryService.searchCategories(keyword, pageable));
     }
 
     @GetMapping("/roots/page")
     public ResponseEntity<Page<CategoryDTO>> getRootCategoriesPage(@PageableDefault Pageable pageable) {
-        return ResponseEntity.ok(categoryService.findRootCategories(pageable));
+        return contentETags.ok(categoryService.findRootCategories(pageable));
     }
 }
@@ -0,0 +1,69 @@
+package com.example.copilot.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Arrays;
+
+/**
+ * Strong ETags derived from a hash of the JSON representation of a response body.
+ *
+ * The hash is memoized per body instance (identity, weakly referenced), so DTOs and pages served
+ * from the product/category caches are hashed once rather than on every request. Returned
+ * through {@link #ok}, a matching {@code If-None-Match} is answered with 304 by Spring MVC before
+ * the body is serialized.
+ */
+@Component
+@Slf4j
+public class ContentETags {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, String> tagsByInstance = Caffeine.newBuilder()
+        .weakKeys()
+        .maximumSize(10_000)
+        .build();
+
+    public ContentETags(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Wraps the body in a 200 response carrying its strong ETag.
+     */
+    public <T> ResponseEntity<T> ok(T body) {
+        String tag = tagFor(body);
+        return tag != null ? ResponseEntity.ok().eTag(tag).body(body) : ResponseEntity.ok(body);
+    }
+
+    String tagFor(Object body) {
+        if (body == null) {
+            return null;
+        }
+        return tagsByInstance.get(body, this::hash);
+    }
+
+    private String hash(Object body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Stream straight into the digest: no intermediate byte[] of the serialized body
+            try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                objectMapper.writeValue(out, body);
+            }
+            byte[] truncated = Arrays.copyOf(digest.digest(), 16);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(truncated) + "\"";
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.warn("Could not compute ETag for {}", body.getClass().getSimpleName(), e);
+            return null;
+        }
+    }
+}
@@ -1,24 +1,54 @@
 package com.example.copilot.controller;
 
+import com.example.copilot.dto.BulkAdjustmentResultDTO;
+import com.example.copilot.dto.CursorSlice;
+import com.example.copilot.dto.PriceAdjustmentRequestDTO;
 import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.dto.ProductSortOrder;
+import com.example.copilot.dto.RatingHistogramDTO;
+import com.example.copilot.dto.SearchCountDTO;
+import com.example.copilot.dto.SearchKey;
+import com.example.copilot.dto.StockSnapshotRequestDTO;
+import com.example.copilot.service.HotKeyTracker;
+import com.example.copilot.service.ProductAdjustmentService;
+import com.example.copilot.service.ProductBulkImportService;
 import com.example.copilot.service.ProductService;
+import com.example.copilot.service.SearchCountEstimator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
 public class ProductController {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_HISTOGRAM_IDS = 100;
+
     private final ProductService productService;
+    private final SearchCountEstimator searchCountEstimator;
+    private final HotKeyTracker hotKeyTracker;
+    private final ContentETags contentETags;
+    private final ProductBulkImportService productBulkImportService;
+    private final ProductAdjustmentService productAdjustmentService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<ProductDTO> create(@Valid @RequestBody Map<String, Object> productMap) {
@@ -32,11 +62,58 @@ public class ProductController {
             productMap.remove("category"); // Remove category key to avoid Jackson error
         }
         // Convert map to ProductDTO
-        ProductDTO productDTO = new ObjectMapper().convertValue(productMap, ProductDTO.class);
+        ProductDTO productDTO = objectMapper.convertValue(productMap, ProductDTO.class);
         ProductDTO createdProduct = productService.create(productDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    /**
+     * Streaming bulk upsert for catalog feeds. Accepts NDJSON ({@code application/x-ndjson}, one product
+     * per line) or CSV ({@code text/csv}, header row). The response is NDJSON: one
+     * {@code {"line":..,"error":..}} object per rejected row, written as the feed is processed,
+     * followed by a final {@code {"summary":{..}}} object.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public void bulkUpsert(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ProductBulkImportService.Format format = MediaType.parseMediaType(request.getContentType())
+            .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductBulkImportService.Format.CSV : ProductBulkImportService.Format.NDJSON;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        try (JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            out.setRootValueSeparator(new SerializedString("\n"));
+            ProductBulkImportService.BulkImportResult result = productBulkImportService.importProducts(
+                request.getInputStream(), format, error -> writeLine(out, error));
+            out.writeObject(Map.of("summary", result));
+            out.writeRaw('\n');
+        }
+    }
+
+    /**
+     * Percentage or absolute price change for all products matching a category/price/keyword filter.
+     */
+    @PostMapping("/bulk/price")
+    public ResponseEntity<BulkAdjustmentResultDTO> adjustPrices(@Valid @RequestBody PriceAdjustmentRequestDTO request) {
+        return ResponseEntity.ok(productAdjustmentService.adjustPrices(request));
+    }
+
+    /**
+     * Sets stock levels from a warehouse snapshot keyed by product id.
+     */
+    @PostMapping("/bulk/stock")
+    public ResponseEntity<BulkAdjustmentResultDTO> applyStockSnapshot(@Valid @RequestBody StockSnapshotRequestDTO request) {
+        return ResponseEntity.ok(productAdjustmentService.applyStockSnapshot(request));
+    }
+
+    private static void writeLine(JsonGenerator out, Object value) {
+        try {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO productDTO) {
         return ResponseEntity.ok(productService.update(id, productDTO));
@@ -48,19 +125,87 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Star histograms for a listing page, e.g. {@code ?ids=1,2,3}, in one call.
+     */
+    @GetMapping("/rating-histograms")
+    public ResponseEntity<List<RatingHistogramDTO>> getRatingHistograms(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_HISTOGRAM_IDS) {
+            throw new IllegalArgumentException("ids must contain between 1 and " + MAX_HISTOGRAM_IDS + " product ids");
+        }
+        return ResponseEntity.ok(productService.getRatingHistograms(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findById(id));
+        hotKeyTracker.recordProductView(id);
+        return contentETags.ok(productService.findById(id));
     }
 
     @GetMapping
     public ResponseEntity<Page<ProductDTO>> getAll(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) List<Double> priceBuckets,
+            @PageableDefault Pageable pageable) {
+        if (facets) {
+            return contentETags.ok(productService.searchProductsWithFacets(keyword, categoryId, minPrice, maxPrice, priceBuckets, pageable));
+        }
+        if (includeSubcategories && categoryId != null) {
+            return contentETags.ok(productService.searchProductsInCategoryTree(keyword, categoryId, minPrice, maxPrice, pageable));
+        }
+        hotKeyTracker.recordSearch(SearchKey.of(keyword, categoryId, minPrice, maxPrice, pageable));
+        return contentETags.ok(productService.searchProducts(keyword, categoryId, minPrice, maxPrice, pageable));
+    }
+
+    /**
+     * Count-free search: same filters as {@link #getAll} but returns a Slice (hasNext, no totals),
+     * halving database work per request. Totals are available from {@code /count}.
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<Slice<ProductDTO>> getAllSlice(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @PageableDefault Pageable pageable) {
-        return ResponseEntity.ok(productService.searchProducts(keyword, categoryId, minPrice, maxPrice, pageable));
+        return ResponseEntity.ok(productService.searchProductsSlice(keyword, categoryId, minPrice, maxPrice, pageable));
+    }
+
+    /**
+     * Approximate total for a search, served from an asynchronously computed cache or table statistics.
+     * Returns source=PENDING with a null count while the first computation for a filter is running.
+     */
+    @GetMapping("/count")
+    public ResponseEntity<SearchCountDTO> getSearchCount(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice) {
+        return ResponseEntity.ok(searchCountEstimator.estimate(keyword, categoryId, minPrice, maxPrice));
+    }
+
+    /**
+     * Cursor-paginated listing/search for deep pagination and infinite scroll.
+     * Pass the returned nextCursor back to fetch the following slice; no total count is computed.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorSlice<ProductDTO>> getAllByCursor(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "NAME") ProductSortOrder sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(productService.searchProductsKeyset(keyword, categoryId, minPrice, maxPrice, sort, cursor, size));
     }
 
     @RestControllerAdvice
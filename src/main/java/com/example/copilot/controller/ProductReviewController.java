@@ -1,15 +1,21 @@
 package com.example.copilot.controller;
 
+import com.example.copilot.dto.CursorSlice;
 import com.example.copilot.dto.ReviewDTO;
 import com.example.copilot.exception.ErrorDetails;
 import com.example.copilot.exception.ValidationException;
+import com.example.copilot.service.ReviewSearchService;
 import com.example.copilot.service.ReviewService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -21,6 +27,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -29,7 +37,11 @@ import java.util.List;
 @Tag(name = "Product Review Management", description = "APIs for managing product reviews as per your plan")
 public class ProductReviewController {
 
+    private static final int MAX_FEED_SIZE = 100;
+
     private final ReviewService reviewService;
+    private final ReviewSearchService reviewSearchService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/products/{productId}/reviews")
     @Operation(
@@ -85,10 +97,80 @@ public class ProductReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/products/{productId}/reviews/feed")
+    @Operation(
+        summary = "Get a product's review feed",
+        description = "Keyset-paginated reviews, newest first. Pass the returned nextCursor to fetch the following slice (public endpoint)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+    })
+    public ResponseEntity<CursorSlice<ReviewDTO>> getProductReviewFeed(
+            @Parameter(description = "Product ID") @PathVariable Long productId,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (1-" + MAX_FEED_SIZE + ")") @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_FEED_SIZE);
+        }
+        return ResponseEntity.ok(reviewService.getProductReviewFeed(productId, cursor, size));
+    }
+
+    @GetMapping("/products/{productId}/reviews/search")
+    @Operation(
+        summary = "Search a product's reviews",
+        description = "Reviews of the product containing any word of the query, best match first (BM25 ranking)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching reviews retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Empty query, or invalid page or size")
+    })
+    public ResponseEntity<Page<ReviewDTO>> searchProductReviews(
+            @Parameter(description = "Product ID") @PathVariable Long productId,
+            @Parameter(description = "Search words, e.g. battery life") @RequestParam String q,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-" + MAX_FEED_SIZE + ")") @RequestParam(defaultValue = "10") int size) {
+        if (page < 0 || size < 1 || size > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_FEED_SIZE);
+        }
+        return ResponseEntity.ok(reviewSearchService.search(productId, q, PageRequest.of(page, size)));
+    }
+
+    /**
+     * NDJSON export of every review of a product for moderation tools, one review per line, newest
+     * first. Reviews are read and written in bounded batches, so memory use does not grow with the
+     * number of reviews.
+     */
+    @GetMapping(value = "/products/{productId}/reviews/export", produces = "application/x-ndjson")
+    @Operation(
+        summary = "Export a product's reviews",
+        description = "Streams all reviews of a product as NDJSON, one review per line"
+    )
+    public void exportProductReviews(@Parameter(description = "Product ID") @PathVariable Long productId,
+                                     HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        try (JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            out.setRootValueSeparator(new SerializedString("\n"));
+            reviewService.exportProductReviews(productId, review -> writeLine(out, review));
+            out.writeRaw('\n');
+        }
+    }
+
+    private static void writeLine(JsonGenerator out, Object value) {
+        try {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/products/{productId}/reviews/simple")
     @Operation(
         summary = "Get all reviews for a product (simple list)", 
-        description = "Retrieve all reviews for a specific product as a simple list (public endpoint)"
+        description = "Retrieve all reviews for a specific product as a simple list (public endpoint). "
+            + "Unbounded; use /products/{productId}/reviews/feed or /export instead",
+        deprecated = true
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
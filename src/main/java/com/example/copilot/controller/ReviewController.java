@@ -1,16 +1,23 @@
 package com.example.copilot.controller;
 
 import com.example.copilot.dto.CreateReviewRequestDTO;
+import com.example.copilot.dto.CursorSlice;
 import com.example.copilot.dto.ReviewDTO;
 import com.example.copilot.dto.UpdateReviewRequestDTO;
 import com.example.copilot.exception.ErrorDetails;
 import com.example.copilot.exception.ValidationException;
+import com.example.copilot.service.ReviewBulkImportService;
 import com.example.copilot.service.ReviewService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -18,10 +25,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +42,12 @@ import java.util.Map;
 @Tag(name = "Review Management", description = "APIs for managing product reviews")
 public class ReviewController {
 
+    private static final int MAX_FEED_SIZE = 100;
+    private static final int MAX_ELIGIBILITY_IDS = 100;
+
     private final ReviewService reviewService;
+    private final ReviewBulkImportService reviewBulkImportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/users/{userId}")
     @Operation(summary = "Create a new review", description = "Create a review for a product (user must have purchased the product)")
@@ -55,6 +70,39 @@ public class ReviewController {
         return new ResponseEntity<>(review, HttpStatus.CREATED);
     }
 
+    /**
+     * Streaming import of legacy reviews. Accepts NDJSON ({@code application/x-ndjson}, one review
+     * per line) or CSV ({@code text/csv}, header row). The response is NDJSON: one
+     * {@code {"line":..,"error":..}} object per rejected row, followed by a final {@code {"summary":{..}}}
+     * object. Re-posting the same feed with the same {@code jobId} resumes after the last committed batch.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Bulk import reviews", description = "Resumable streaming import of historical reviews (admin only)")
+    public void bulkImport(@Parameter(description = "Stable job id used for checkpoints") @RequestParam String jobId,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ReviewBulkImportService.Format format = MediaType.parseMediaType(request.getContentType())
+            .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ReviewBulkImportService.Format.CSV : ReviewBulkImportService.Format.NDJSON;
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        try (JsonGenerator out = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            out.setRootValueSeparator(new SerializedString("\n"));
+            ReviewBulkImportService.BulkImportResult result = reviewBulkImportService.importReviews(
+                jobId, request.getInputStream(), format, error -> writeLine(out, error));
+            out.writeObject(Map.of("summary", result));
+            out.writeRaw('\n');
+        }
+    }
+
+    private static void writeLine(JsonGenerator out, Object value) {
+        try {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PutMapping("/{reviewId}/users/{userId}")
     @Operation(summary = "Update a review", description = "Update an existing review (user can only update their own reviews)")
     @ApiResponses(value = {
@@ -126,8 +174,27 @@ public class ReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/users/{userId}/feed")
+    @Operation(summary = "Get a user's review feed",
+               description = "Keyset-paginated reviews written by a user, newest first. Pass the returned nextCursor to fetch the following slice")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+    })
+    public ResponseEntity<CursorSlice<ReviewDTO>> getUserReviewFeed(
+            @Parameter(description = "User ID") @PathVariable Long userId,
+            @Parameter(description = "Cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (1-" + MAX_FEED_SIZE + ")") @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_FEED_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_FEED_SIZE);
+        }
+        return ResponseEntity.ok(reviewService.getUserReviewFeed(userId, cursor, size));
+    }
+
     @GetMapping("/users/{userId}")
-    @Operation(summary = "Get reviews by user", description = "Retrieve all reviews written by a specific user")
+    @Operation(summary = "Get reviews by user",
+               description = "Retrieve all reviews written by a specific user. Unbounded; use /users/{userId}/feed instead",
+               deprecated = true)
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
         @ApiResponse(responseCode = "404", description = "User not found")
@@ -154,6 +221,22 @@ public class ReviewController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/users/{userId}/can-review")
+    @Operation(summary = "Check review eligibility for several products",
+               description = "Answers can-review for every product of a listing page in one call")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Eligibility checked successfully"),
+        @ApiResponse(responseCode = "400", description = "No product ids, or more than " + MAX_ELIGIBILITY_IDS)
+    })
+    public ResponseEntity<Map<Long, Boolean>> canUserReviewProducts(
+            @Parameter(description = "User ID") @PathVariable Long userId,
+            @Parameter(description = "Product IDs, comma separated") @RequestParam List<Long> productIds) {
+        if (productIds.isEmpty() || productIds.size() > MAX_ELIGIBILITY_IDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_ELIGIBILITY_IDS + " product ids are required");
+        }
+        return ResponseEntity.ok(reviewService.canUserReviewProducts(userId, productIds));
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<ErrorDetails> handleValidationException(ValidationException ex) {
         ErrorDetails errorDetails = new ErrorDetails(
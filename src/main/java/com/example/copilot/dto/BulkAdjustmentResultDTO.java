@@ -0,0 +1,16 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAdjustmentResultDTO {
+    private int affectedRows;
+    /** Ids in a stock snapshot that matched no product; empty for price adjustments. */
+    private List<Long> missingIds;
+}
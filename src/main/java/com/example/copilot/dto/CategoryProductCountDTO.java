@@ -0,0 +1,14 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryProductCountDTO {
+    private Long categoryId;
+    private long productCount;          // Products directly in this category
+    private long subtreeProductCount;   // Products in this category and all of its descendants
+}
@@ -0,0 +1,18 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTreeNodeDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private List<CategoryTreeNodeDTO> children = new ArrayList<>();
+}
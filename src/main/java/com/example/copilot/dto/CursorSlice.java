@@ -0,0 +1,23 @@
+package com.example.copilot.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Slice of keyset-paginated results. Carries the cursor for the next slice instead of a page number
+ * and never requires a count query.
+ */
+public class CursorSlice<T> extends SliceImpl<T> {
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, int size, boolean hasNext, String nextCursor) {
+        super(content, PageRequest.ofSize(size), hasNext);
+        this.nextCursor = nextCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.copilot.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * Page of search results that additionally carries facet counts,
+ * so facets are returned in the same response envelope as the page.
+ */
+public class FacetedPage<T> extends PageImpl<T> {
+    private final ProductFacetsDTO facets;
+
+    public FacetedPage(Page<T> page, ProductFacetsDTO facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public ProductFacetsDTO getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.copilot.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Set-based price change for every product matching the filter
+ * (category, current price range and/or keyword; at least one is required).
+ */
+@Data
+public class PriceAdjustmentRequestDTO {
+    public enum Mode {
+        /** {@code amount} is a percentage: 5 raises prices by 5%, -10 lowers them by 10%. */
+        PERCENTAGE,
+        /** {@code amount} is added to the current price. */
+        ABSOLUTE
+    }
+
+    @NotNull(message = "Adjustment mode is required")
+    private Mode mode;
+
+    @NotNull(message = "Adjustment amount is required")
+    private Double amount;
+
+    private Long categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private String keyword;
+}
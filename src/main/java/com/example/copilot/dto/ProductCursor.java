@@ -0,0 +1,73 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last product on the previous slice.
+ * Encoded as URL-safe Base64 so clients treat it as an opaque token.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+    private static final String SEPARATOR = "|";
+
+    private final ProductSortOrder sort;
+    private final Long id;
+    private final Integer rank;   // RELEVANCE only
+    private final Double price;   // PRICE only
+    private final String name;    // NAME and RELEVANCE
+
+    public static ProductCursor afterName(String name, Long id) {
+        return new ProductCursor(ProductSortOrder.NAME, id, null, null, name);
+    }
+
+    public static ProductCursor afterPrice(Double price, Long id) {
+        return new ProductCursor(ProductSortOrder.PRICE, id, null, price, null);
+    }
+
+    public static ProductCursor afterRelevance(Integer rank, String name, Long id) {
+        return new ProductCursor(ProductSortOrder.RELEVANCE, id, rank, null, name);
+    }
+
+    public String encode() {
+        // The name goes last so it may itself contain the separator
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR
+            + (rank != null ? rank : "") + SEPARATOR
+            + (price != null ? price : "") + SEPARATOR
+            + (name != null ? name : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort order
+     */
+    public static ProductCursor decode(String token, ProductSortOrder expectedSort) {
+        ProductCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            cursor = new ProductCursor(
+                ProductSortOrder.valueOf(parts[0]),
+                Long.valueOf(parts[1]),
+                parts[2].isEmpty() ? null : Integer.valueOf(parts[2]),
+                parts[3].isEmpty() ? null : Double.valueOf(parts[3]),
+                parts[4]);
+        } catch (IllegalArgumentException e) {
+            // Covers Base64, enum and number parsing failures
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (cursor.getSort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort order " + cursor.getSort() + ", not " + expectedSort);
+        }
+        return cursor;
+    }
+}
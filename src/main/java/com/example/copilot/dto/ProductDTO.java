@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class ProductDTO {
     private Long id;
@@ -27,4 +29,5 @@ public class ProductDTO {
     
     private Double averageRating;
     private Integer reviewCount;
+    private List<Integer> ratingHistogram;   // 1..5 stars; product details only, ignored on writes
 }
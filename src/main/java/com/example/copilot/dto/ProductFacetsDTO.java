@@ -0,0 +1,30 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts for a product search: number of matches per category and per price range.
+ * Computed over the full result set (not just the current page).
+ */
+@Data
+public class ProductFacetsDTO {
+    private Map<Long, Long> categoryCounts = new LinkedHashMap<>();
+    private List<PriceBucket> priceBuckets = new ArrayList<>();
+    private long totalMatches;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private Double from;
+        private Double to; // null for the open-ended last bucket
+        private long count;
+    }
+}
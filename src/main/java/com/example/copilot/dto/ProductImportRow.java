@@ -0,0 +1,12 @@
+package com.example.copilot.dto;
+
+/**
+ * One row of a bulk product feed (NDJSON object or CSV record).
+ * Rows with an {@code id} update that product; otherwise the row updates the only product with the same
+ * name, or inserts a new one (a name shared by several products is rejected). The category is given either
+ * as {@code categoryId} or by {@code category} name. An update leaves the description and category as they
+ * are when the row omits them.
+ */
+public record ProductImportRow(Long id, String name, String description, Double price, Integer stock,
+                               Long categoryId, String category) {
+}
@@ -0,0 +1,11 @@
+package com.example.copilot.dto;
+
+/**
+ * Sort orders supported by keyset (cursor) pagination of products.
+ * Every order is made unique by using the product id as the final tie-breaker.
+ */
+public enum ProductSortOrder {
+    NAME,
+    PRICE,
+    RELEVANCE
+}
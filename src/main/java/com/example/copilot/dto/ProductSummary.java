@@ -0,0 +1,17 @@
+package com.example.copilot.dto;
+
+/**
+ * Read-only projection of the product columns shown on listing pages.
+ * Selected directly by JPQL constructor expressions, so no managed entity is hydrated,
+ * the TEXT description is never read and nothing is registered for dirty checking.
+ */
+public record ProductSummary(
+    Long id,
+    String name,
+    Double price,
+    Integer stock,
+    Double averageRating,
+    Integer reviewCount,
+    Long categoryId
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Star distribution of a product's reviews, for "5 stars: 60%" style summaries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingHistogramDTO {
+    private Long productId;
+    private List<Integer> counts;   // index 0 = 1 star ... index 4 = 5 stars
+    private Integer total;
+}
@@ -0,0 +1,50 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for review feeds: creation time and id of the last review on the previous
+ * slice. Feeds are ordered newest first by (createdAt, id).
+ */
+@Getter
+@AllArgsConstructor
+public class ReviewCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static ReviewCursor after(ReviewDTO review) {
+        return new ReviewCursor(review.getCreatedAt(), review.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ReviewCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ReviewCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Covers Base64, date and number parsing failures
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
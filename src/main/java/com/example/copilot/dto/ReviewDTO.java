@@ -1,9 +1,13 @@
 package com.example.copilot.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ReviewDTO {
     private Long id;
     private String content;
@@ -0,0 +1,10 @@
+package com.example.copilot.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a legacy review feed (NDJSON object or CSV record).
+ * {@code createdAt} keeps the original review date; when absent the import time is used.
+ */
+public record ReviewImportRow(Long userId, Long productId, Integer rating, String content, LocalDateTime createdAt) {
+}
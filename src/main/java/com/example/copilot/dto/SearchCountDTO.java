@@ -0,0 +1,24 @@
+package com.example.copilot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total-count companion for count-free (Slice) searches.
+ * The count may be approximate or still being computed in the background.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCountDTO {
+    public enum Source {
+        CACHED,            // exact count computed asynchronously, dropped on any product or catalog change
+        TABLE_STATISTICS,  // estimate from database table statistics (unfiltered searches only)
+        PENDING            // computation started; poll again shortly
+    }
+
+    private Long count;
+    private boolean approximate;
+    private Source source;
+}
@@ -0,0 +1,30 @@
+package com.example.copilot.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Parameters of a product search request, recorded for cache warming and persisted across restarts.
+ * Sort orders are stored as "property,DIRECTION" strings.
+ */
+public record SearchKey(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                        int page, int size, List<String> sort) {
+
+    public static SearchKey of(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
+        List<String> sort = pageable.getSort().stream()
+            .map(order -> order.getProperty() + "," + order.getDirection().name())
+            .toList();
+        return new SearchKey(keyword, categoryId, minPrice, maxPrice, pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    public Pageable toPageable() {
+        List<Sort.Order> orders = sort == null ? List.of() : sort.stream()
+            .map(s -> s.split(",", 2))
+            .map(parts -> new Sort.Order(Sort.Direction.fromString(parts[1]), parts[0]))
+            .toList();
+        return PageRequest.of(page, size, Sort.by(orders));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.copilot.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Absolute stock levels from a warehouse snapshot, keyed by product id.
+ */
+@Data
+public class StockSnapshotRequestDTO {
+    @NotEmpty(message = "Snapshot must contain at least one item")
+    @Valid
+    private List<Item> items;
+
+    @Data
+    public static class Item {
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @NotNull(message = "Stock quantity is required")
+        @PositiveOrZero(message = "Stock cannot be negative")
+        private Integer stock;
+    }
+}
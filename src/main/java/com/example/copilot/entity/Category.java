@@ -6,14 +6,25 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.text.Normalizer;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+    // Prefix lookups (path LIKE '/1/5/%') select a whole subtree with one index range scan
+    @Index(name = "idx_category_path", columnList = "path"),
+    // Prefix search on the normalized name (search_name LIKE 'lap%') is an index range scan
+    @Index(name = "idx_category_search_name", columnList = "search_name")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Category extends Auditable<String> {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,10 +36,18 @@ public class Category extends Auditable<String> {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // Lower-cased, accent-free, whitespace-collapsed copy of name; kept in sync on every insert/update
+    @Column(name = "search_name")
+    private String searchName;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
     private Category parent;
 
+    // Materialized path of ancestor ids including this one, e.g. "/1/5/12/"; maintained by CategoryServiceImpl
+    @Column(length = 512)
+    private String path;
+
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
     @JsonIgnore
     private Set<Category> children = new HashSet<>();
@@ -36,4 +55,22 @@ public class Category extends Auditable<String> {
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     @JsonIgnore
     private Set<Product> products = new HashSet<>();
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchName() {
+        searchName = normalizeSearchText(name);
+    }
+
+    /**
+     * Normalizes text for matching: accents stripped, lower-cased, punctuation replaced by spaces and
+     * runs of whitespace collapsed, so "  Café-Bar " becomes "cafe bar". Returns null for null input.
+     */
+    public static String normalizeSearchText(String text) {
+        if (text == null) {
+            return null;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
 }
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.ColumnDefault;
 import com.example.copilot.entity.base.Auditable;
 import java.util.ArrayList;
 import java.util.List;
@@ -66,9 +67,48 @@ public class Product extends Auditable<String> {
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
 
-    @Column(name = "average_rating")
+    // Rating aggregates are written only by ProductRatingAggregator and ProductRatingReconciler,
+    // never by entity saves, so saving a product cannot overwrite concurrent review deltas
+    @Column(name = "average_rating", updatable = false)
     private Double averageRating = 0.0;
 
-    @Column(name = "review_count")
+    // Also the rating count: averageRating = ratingSum / reviewCount
+    @Column(name = "review_count", updatable = false)
     private Integer reviewCount = 0;
+
+    @Column(name = "rating_sum", updatable = false)
+    @ColumnDefault("0")
+    private Long ratingSum = 0L;
+
+    // Star histogram: number of reviews rated 1..5
+    @Column(name = "rating_1_count", updatable = false)
+    @ColumnDefault("0")
+    private Integer rating1Count = 0;
+
+    @Column(name = "rating_2_count", updatable = false)
+    @ColumnDefault("0")
+    private Integer rating2Count = 0;
+
+    @Column(name = "rating_3_count", updatable = false)
+    @ColumnDefault("0")
+    private Integer rating3Count = 0;
+
+    @Column(name = "rating_4_count", updatable = false)
+    @ColumnDefault("0")
+    private Integer rating4Count = 0;
+
+    @Column(name = "rating_5_count", updatable = false)
+    @ColumnDefault("0")
+    private Integer rating5Count = 0;
+
+    /**
+     * @return review counts for 1 to 5 stars
+     */
+    public List<Integer> getRatingHistogram() {
+        return List.of(count(rating1Count), count(rating2Count), count(rating3Count), count(rating4Count), count(rating5Count));
+    }
+
+    private static int count(Integer value) {
+        return value != null ? value : 0;
+    }
 }
@@ -6,9 +6,16 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import com.example.copilot.entity.base.Auditable;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "reviews", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "product_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "product_id"}),
+       indexes = {
+           // Keyset feeds: equality on the owner, then seek on (created_at, id)
+           @Index(name = "idx_reviews_product_created", columnList = "product_id, created_at, id"),
+           @Index(name = "idx_reviews_user_created", columnList = "user_id, created_at, id")
+       })
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Review extends Auditable<User> {
@@ -36,4 +43,18 @@ public class Review extends Auditable<User> {
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull(message = "User is required")
     private User user;
+
+    // Review feeds order by created_at, so it is set here while JPA auditing is disabled
+    @PrePersist
+    void initTimestamps() {
+        if (getCreatedAt() == null) {
+            setCreatedAt(LocalDateTime.now());
+        }
+        setUpdatedAt(getCreatedAt());
+    }
+
+    @PreUpdate
+    void touchUpdatedAt() {
+        setUpdatedAt(LocalDateTime.now());
+    }
 }
@@ -0,0 +1,48 @@
+package com.example.copilot.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Progress of a resumable bulk review import. Written in the same transaction as each batch, so
+ * after a failure the import resumes right after the last committed row.
+ */
+@Entity
+@Table(name = "review_import_checkpoints")
+@Data
+public class ReviewImportCheckpoint {
+
+    @Id
+    @Column(name = "job_id", length = 100)
+    private String jobId;
+
+    // Source line of the last row in the last committed batch
+    @Column(name = "last_line", nullable = false)
+    private Long lastLine;
+
+    @Column(name = "rows_imported", nullable = false)
+    private Long rowsImported;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Products that received reviews from this job; their rating aggregates are recomputed when it completes
+    @ElementCollection
+    @CollectionTable(name = "review_import_checkpoint_products", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "product_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Long> productIds = new HashSet<>();
+}
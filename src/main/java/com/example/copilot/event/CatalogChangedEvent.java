@@ -0,0 +1,10 @@
+package com.example.copilot.event;
+
+/**
+ * Published after a bulk write (import, price or stock adjustment) that may touch many products.
+ * Listeners should reload rather than patch.
+ *
+ * @param source short description of the write, for logging
+ */
+public record CatalogChangedEvent(String source) {
+}
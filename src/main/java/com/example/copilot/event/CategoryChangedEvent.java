@@ -0,0 +1,21 @@
+package com.example.copilot.event;
+
+/**
+ * Published when a category is created, updated, moved or deleted. The parent ids tell listeners
+ * which subcategory lists changed; a null parent means the root list changed.
+ *
+ * @param categoryId  the category written
+ * @param oldParentId parent before the write (same as {@code newParentId} unless the category moved)
+ * @param newParentId parent after the write
+ * @param deleted     true if the category and its subtree were removed
+ */
+public record CategoryChangedEvent(Long categoryId, Long oldParentId, Long newParentId, boolean deleted) {
+
+    public static CategoryChangedEvent saved(Long categoryId, Long oldParentId, Long newParentId) {
+        return new CategoryChangedEvent(categoryId, oldParentId, newParentId, false);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId, Long parentId) {
+        return new CategoryChangedEvent(categoryId, parentId, parentId, true);
+    }
+}
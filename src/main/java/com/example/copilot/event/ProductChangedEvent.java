@@ -0,0 +1,31 @@
+package com.example.copilot.event;
+
+/**
+ * Published after a single product is created, updated or deleted.
+ * Carries the indexed columns so listeners can update in-memory views without a query.
+ *
+ * {@code previousCategoryId} is the category before the write (null on create), so per-category
+ * counters can move the product: decrement the previous category, then increment {@code categoryId}
+ * unless the product was deleted. {@code stockOnly} marks writes that changed nothing but the stock
+ * (order placement and cancellation), which listeners keyed on name, price or category can skip.
+ */
+public record ProductChangedEvent(Long productId, Double price, Integer stock, Long categoryId,
+                                  Long previousCategoryId, boolean deleted, boolean stockOnly) {
+
+    public static ProductChangedEvent created(Long productId, Double price, Integer stock, Long categoryId) {
+        return new ProductChangedEvent(productId, price, stock, categoryId, null, false, false);
+    }
+
+    public static ProductChangedEvent updated(Long productId, Double price, Integer stock, Long categoryId,
+                                              Long previousCategoryId) {
+        return new ProductChangedEvent(productId, price, stock, categoryId, previousCategoryId, false, false);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId, Double price, Integer stock, Long categoryId) {
+        return new ProductChangedEvent(productId, price, stock, categoryId, categoryId, false, true);
+    }
+
+    public static ProductChangedEvent deleted(Long productId, Long previousCategoryId) {
+        return new ProductChangedEvent(productId, null, null, null, previousCategoryId, true, false);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.copilot.event;
+
+/**
+ * Published when a review is created, updated or deleted. Carries the rating before and after the
+ * write (null when the review did not exist), so the product's rating sum, count and star histogram
+ * can be moved without reading the reviews table, the review's current content (null on delete)
+ * for the review search index, and its author for the review eligibility cache.
+ */
+public record ReviewChangedEvent(Long productId, Long reviewId, Long userId, Integer previousRating, Integer rating,
+                                 String content) {
+
+    public static ReviewChangedEvent created(Long productId, Long reviewId, Long userId, int rating, String content) {
+        return new ReviewChangedEvent(productId, reviewId, userId, null, rating, content);
+    }
+
+    public static ReviewChangedEvent updated(Long productId, Long reviewId, Long userId, int previousRating, int rating,
+                                             String content) {
+        return new ReviewChangedEvent(productId, reviewId, userId, previousRating, rating, content);
+    }
+
+    public static ReviewChangedEvent deleted(Long productId, Long reviewId, Long userId, int rating) {
+        return new ReviewChangedEvent(productId, reviewId, userId, rating, null, null);
+    }
+
+    public boolean deleted() {
+        return rating == null;
+    }
+
+    public long ratingDelta() {
+        return (rating != null ? rating : 0) - (previousRating != null ? previousRating : 0);
+    }
+
+    public int countDelta() {
+        return (rating != null ? 1 : 0) - (previousRating != null ? 1 : 0);
+    }
+}
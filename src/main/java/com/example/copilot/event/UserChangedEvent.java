@@ -0,0 +1,8 @@
+package com.example.copilot.event;
+
+/**
+ * Published after a user is updated or deleted. Carries the email the user had before the write,
+ * which is the username cached user details and issued tokens are keyed by.
+ */
+public record UserChangedEvent(Long userId, String previousEmail) {
+}
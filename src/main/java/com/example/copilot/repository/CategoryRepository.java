@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,8 +28,28 @@ public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSp
            "LOWER(c.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Category> searchCategories(@Param("keyword") String keyword, Pageable pageable);
 
+    // INDEXED SEARCH: prefix match on the normalized name column, exact matches first
+    @Query(value = "SELECT c FROM Category c WHERE c.searchName LIKE CONCAT(:prefix, '%') " +
+                   "ORDER BY CASE WHEN c.searchName = :prefix THEN 0 ELSE 1 END, c.searchName, c.id",
+           countQuery = "SELECT COUNT(c) FROM Category c WHERE c.searchName LIKE CONCAT(:prefix, '%')")
+    Page<Category> searchByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+
     @Query("SELECT c FROM Category c WHERE c.parent IS NULL")
     Page<Category> findRootCategories(Pageable pageable);
 
     List<Category> findByParentId(Long parentId);
+
+    // MATERIALIZED PATH: re-root a moved subtree (the category and all descendants) in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET c.path = CONCAT(:newPrefix, SUBSTRING(c.path, :oldPrefixLength + 1)) " +
+           "WHERE c.path LIKE CONCAT(:oldPrefix, '%')")
+    int movePaths(@Param("oldPrefix") String oldPrefix, @Param("oldPrefixLength") int oldPrefixLength,
+                  @Param("newPrefix") String newPrefix);
+
+    // Flat (id, name, description, parentId) rows for building the in-memory CategoryTree
+    @Query("SELECT c.id, c.name, c.description, p.id FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findTreeRows();
+
+    @Query("SELECT c.id, c.name FROM Category c")
+    List<Object[]> findAllIdsAndNames();
 }
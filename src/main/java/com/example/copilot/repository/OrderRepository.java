@@ -21,4 +21,7 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     boolean existsByUserIdAndOrderItemsProductIdAndStatus(@Param("userId") Long userId, 
                                                          @Param("productId") Long productId, 
                                                          @Param("status") OrderStatus status);
+
+    @Query("SELECT DISTINCT oi.product.id FROM Order o JOIN o.orderItems oi WHERE o.user.id = :userId AND o.status = :status")
+    List<Long> findProductIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") OrderStatus status);
 }
@@ -0,0 +1,16 @@
+package com.example.copilot.repository;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for facet aggregation over product searches.
+ */
+public interface ProductFacetRepository {
+    /**
+     * Counts matching products grouped by category and price bucket in a single grouped query.
+     * Each row is {categoryId (Long, may be null), bucketIndex (Integer), count (Long)}.
+     * Bucket i covers [boundaries[i-1], boundaries[i]); bucket 0 is below the first boundary
+     * and the last bucket is open-ended.
+     */
+    List<Object[]> countFacets(String keyword, Long categoryId, Double minPrice, Double maxPrice, List<Double> priceBoundaries);
+}
@@ -0,0 +1,57 @@
+package com.example.copilot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    private static final int MAX_BOUNDARIES = 20;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> countFacets(String keyword, Long categoryId, Double minPrice, Double maxPrice, List<Double> priceBoundaries) {
+        // Same filter as ProductRepository.searchProducts so facets always describe the listed results
+        String jpql = "SELECT c.id, " + bucketExpression(priceBoundaries) + " AS bucket, COUNT(p) " +
+                      "FROM Product p LEFT JOIN p.category c WHERE " +
+                      "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+                      "AND (:categoryId IS NULL OR c.id = :categoryId) " +
+                      "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                      "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+                      "GROUP BY c.id, bucket";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        query.setParameter("keyword", keyword);
+        query.setParameter("categoryId", categoryId);
+        query.setParameter("minPrice", minPrice);
+        query.setParameter("maxPrice", maxPrice);
+        return query.getResultList();
+    }
+
+    /**
+     * Builds the CASE expression that maps a price to its bucket index.
+     * Boundaries are inlined as numeric literals (they are parsed doubles, never user text) so the
+     * SELECT and GROUP BY expressions render identically, which MySQL's ONLY_FULL_GROUP_BY requires.
+     */
+    private String bucketExpression(List<Double> priceBoundaries) {
+        if (priceBoundaries == null || priceBoundaries.isEmpty()) {
+            return "0";
+        }
+        // ProductFacetService caps and validates request boundaries; this guards any other caller
+        if (priceBoundaries.size() > MAX_BOUNDARIES || priceBoundaries.stream().anyMatch(b -> !Double.isFinite(b))) {
+            throw new IllegalArgumentException("Expected at most " + MAX_BOUNDARIES + " finite price boundaries");
+        }
+        StringBuilder expression = new StringBuilder("CASE");
+        for (int i = 0; i < priceBoundaries.size(); i++) {
+            expression.append(" WHEN p.price < ")
+                      .append(BigDecimal.valueOf(priceBoundaries.get(i)).toPlainString())
+                      .append(" THEN ").append(i);
+        }
+        return expression.append(" ELSE ").append(priceBoundaries.size()).append(" END").toString();
+    }
+}
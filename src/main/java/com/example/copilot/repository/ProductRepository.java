@@ -1,18 +1,23 @@
 package com.example.copilot.repository;
 
+import com.example.copilot.dto.ProductSummary;
 import com.example.copilot.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductFacetRepository {
     @Query("SELECT p FROM Product p WHERE " +
            "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
            "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
@@ -26,6 +31,37 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
         Pageable pageable
     );
 
+    // Same filter as searchProducts, but returned as a Slice: Spring Data fetches size+1 rows
+    // to detect a next page and skips the second COUNT query with the expensive LIKE predicate.
+    @Query("SELECT p FROM Product p WHERE " +
+           "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Slice<Product> searchProductsSlice(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE " +
+           "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    long countSearchProducts(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice
+    );
+
+    // Native SQL: row estimate from InnoDB table statistics, answered without scanning the table
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'products'", nativeQuery = true)
+    Long estimateTableRows();
+
     @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
@@ -99,4 +135,241 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
         @Param("maxPrice") Double maxPrice,
         Pageable pageable
     );
+
+    // PROJECTIONS: listing reads select only the ProductSummary columns into records instead of
+    // hydrating managed Product entities (description TEXT, reviews proxy, dirty-check snapshots).
+    @Query(value = "SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, p.category.id) " +
+                   "FROM Product p",
+           countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, p.category.id) " +
+                   "FROM Product p WHERE " +
+                   "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+                   "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+                   "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                   "AND (:maxPrice IS NULL OR p.price <= :maxPrice)",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE " +
+                   "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+                   "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+                   "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                   "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Page<ProductSummary> searchProductSummaries(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        Pageable pageable
+    );
+
+    @Query("SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, p.category.id) " +
+           "FROM Product p WHERE " +
+           "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Slice<ProductSummary> searchProductSummariesSlice(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        Pageable pageable
+    );
+
+    @Query(value = "SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, p.category.id) " +
+                   "FROM Product p WHERE p.category.id = :categoryId",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
+    Page<ProductSummary> findSummariesByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, p.category.id) " +
+                   "FROM Product p WHERE p.price BETWEEN :min AND :max",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.price BETWEEN :min AND :max")
+    Page<ProductSummary> findSummariesByPriceRange(@Param("min") Double min, @Param("max") Double max, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, p.category.id) " +
+                   "FROM Product p WHERE p.stock < :threshold",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.stock < :threshold")
+    Page<ProductSummary> findLowStockSummaries(@Param("threshold") Integer threshold, Pageable pageable);
+
+    // KEYSET PAGINATION: seek past the last row of the previous slice instead of using OFFSET.
+    // Callers pass a Pageable of size+1 (page 0) to detect "has next"; List return types skip the COUNT query.
+    @Query("SELECT p FROM Product p WHERE " +
+           "(:keyword IS NULL OR p.name LIKE CONCAT('%', :keyword, '%')) " +
+           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:lastId IS NULL OR p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) " +
+           "ORDER BY p.name, p.id")
+    List<Product> findNextByName(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        @Param("lastName") String lastName,
+        @Param("lastId") Long lastId,
+        Pageable pageable
+    );
+
+    @Query("SELECT p FROM Product p WHERE " +
+           "(:keyword IS NULL OR p.name LIKE CONCAT('%', :keyword, '%')) " +
+           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:lastId IS NULL OR p.price > :lastPrice OR (p.price = :lastPrice AND p.id > :lastId)) " +
+           "ORDER BY p.price, p.id")
+    List<Product> findNextByPrice(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        @Param("lastPrice") Double lastPrice,
+        @Param("lastId") Long lastId,
+        Pageable pageable
+    );
+
+    // Same relevance ranking as searchProductsOptimizedCollation; the rank is selected so the
+    // cursor can carry the exact value the database computed.
+    // Each row is {Product, rank}.
+    @Query("SELECT p, " +
+           "CASE WHEN p.name LIKE CONCAT(:keyword, '%') THEN 1 " +
+           "     WHEN p.name LIKE CONCAT('%', :keyword, '%') THEN 2 " +
+           "     ELSE 3 END " +
+           "FROM Product p WHERE " +
+           "(:keyword IS NULL OR p.name LIKE CONCAT('%', :keyword, '%')) " +
+           "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:lastId IS NULL " +
+           "     OR (CASE WHEN p.name LIKE CONCAT(:keyword, '%') THEN 1 " +
+           "              WHEN p.name LIKE CONCAT('%', :keyword, '%') THEN 2 " +
+           "              ELSE 3 END) > :lastRank " +
+           "     OR ((CASE WHEN p.name LIKE CONCAT(:keyword, '%') THEN 1 " +
+           "               WHEN p.name LIKE CONCAT('%', :keyword, '%') THEN 2 " +
+           "               ELSE 3 END) = :lastRank " +
+           "         AND (p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)))) " +
+           "ORDER BY " +
+           "CASE WHEN p.name LIKE CONCAT(:keyword, '%') THEN 1 " +
+           "     WHEN p.name LIKE CONCAT('%', :keyword, '%') THEN 2 " +
+           "     ELSE 3 END, p.name, p.id")
+    List<Object[]> findNextByRelevance(
+        @Param("keyword") String keyword,
+        @Param("categoryId") Long categoryId,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        @Param("lastRank") Integer lastRank,
+        @Param("lastName") String lastName,
+        @Param("lastId") Long lastId,
+        Pageable pageable
+    );
+
+    // BULK IMPORT: resolve upsert targets for one batch in a single round trip each
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.name IN :names ORDER BY p.id")
+    List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
+
+    // BULK PRICE ADJUSTMENT: ids the UPDATE below will touch (delta only for absolute changes), read
+    // first in the same transaction so exactly those product-details entries are evicted
+    @Query("SELECT p.id FROM Product p " +
+           "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "AND (:delta IS NULL OR p.price + :delta > 0)")
+    List<Long> findIdsForAdjustment(@Param("categoryId") Long categoryId, @Param("minPrice") Double minPrice,
+                                    @Param("maxPrice") Double maxPrice, @Param("keyword") String keyword,
+                                    @Param("delta") Double delta);
+
+    // One set-based UPDATE per request. Scaling never rounds a price below 0.01,
+    // which Product.price must stay above; bulk JPQL bypasses auditing, so updatedAt is set explicitly.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.price = CASE WHEN ROUND(p.price * :factor, 2) < 0.01 THEN 0.01 " +
+           "ELSE ROUND(p.price * :factor, 2) END, p.updatedAt = :now " +
+           "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    int scalePrices(@Param("factor") double factor, @Param("categoryId") Long categoryId, @Param("minPrice") Double minPrice,
+                    @Param("maxPrice") Double maxPrice, @Param("keyword") String keyword, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.price = p.price + :delta, p.updatedAt = :now " +
+           "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
+           "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+           "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
+           "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+           "AND p.price + :delta > 0")
+    int shiftPrices(@Param("delta") double delta, @Param("categoryId") Long categoryId, @Param("minPrice") Double minPrice,
+                    @Param("maxPrice") Double maxPrice, @Param("keyword") String keyword, @Param("now") LocalDateTime now);
+
+    // CATEGORY ROLLUPS: direct product count per category in one grouped query
+    @Query("SELECT c.id, COUNT(p) FROM Product p JOIN p.category c GROUP BY c.id")
+    List<Object[]> countProductsPerCategory();
+
+    // COLUMNAR SNAPSHOT: numeric columns for CatalogSnapshot, and page hydration by id
+    @Query("SELECT p.id, p.price, p.stock, c.id FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findCatalogColumns();
+
+    @Query("SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, c.id) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // CATEGORY SUBTREE: one join against the category path index instead of walking the tree
+    @Query(value = "SELECT new com.example.copilot.dto.ProductSummary(p.id, p.name, p.price, p.stock, p.averageRating, p.reviewCount, c.id) " +
+                   "FROM Product p JOIN p.category c WHERE c.path LIKE CONCAT(:pathPrefix, '%') " +
+                   "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+                   "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                   "AND (:maxPrice IS NULL OR p.price <= :maxPrice)",
+           countQuery = "SELECT COUNT(p) " +
+                   "FROM Product p JOIN p.category c WHERE c.path LIKE CONCAT(:pathPrefix, '%') " +
+                   "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+                   "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
+                   "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+    Page<ProductSummary> searchProductSummariesInSubtree(
+        @Param("keyword") String keyword,
+        @Param("pathPrefix") String pathPrefix,
+        @Param("minPrice") Double minPrice,
+        @Param("maxPrice") Double maxPrice,
+        Pageable pageable
+    );
+
+    // RATING AGGREGATES: moved by deltas in ProductRatingAggregator; these find and repair drift.
+    // One grouped pass over reviews joined to products, rather than correlated subqueries per product.
+    @Query(value = "SELECT p.id FROM products p LEFT JOIN (" +
+                   "SELECT product_id, COUNT(*) AS review_count, SUM(rating) AS rating_sum, " +
+                   "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END) AS rating_1_count, " +
+                   "SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END) AS rating_2_count, " +
+                   "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END) AS rating_3_count, " +
+                   "SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END) AS rating_4_count, " +
+                   "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) AS rating_5_count " +
+                   "FROM reviews GROUP BY product_id) r ON r.product_id = p.id " +
+                   "WHERE COALESCE(p.review_count, 0) <> COALESCE(r.review_count, 0) " +
+                   "OR COALESCE(p.rating_sum, 0) <> COALESCE(r.rating_sum, 0) " +
+                   "OR p.rating_1_count <> COALESCE(r.rating_1_count, 0) " +
+                   "OR p.rating_2_count <> COALESCE(r.rating_2_count, 0) " +
+                   "OR p.rating_3_count <> COALESCE(r.rating_3_count, 0) " +
+                   "OR p.rating_4_count <> COALESCE(r.rating_4_count, 0) " +
+                   "OR p.rating_5_count <> COALESCE(r.rating_5_count, 0)",
+           nativeQuery = true)
+    List<Long> findIdsWithRatingDrift();
+
+    // Recomputes the aggregates from the reviews; every value comes from a subquery, so SET order is irrelevant
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET " +
+           "p.averageRating = COALESCE((SELECT AVG(r.rating * 1.0) FROM Review r WHERE r.product.id = :productId), 0.0), " +
+           "p.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.product.id = :productId), " +
+           "p.reviewCount = (SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId), " +
+           "p.rating1Count = (SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.rating = 1), " +
+           "p.rating2Count = (SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.rating = 2), " +
+           "p.rating3Count = (SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.rating = 3), " +
+           "p.rating4Count = (SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.rating = 4), " +
+           "p.rating5Count = (SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId AND r.rating = 5) " +
+           "WHERE p.id = :productId")
+    int repairRatingAggregates(@Param("productId") Long productId);
+
+    // Bulk star histograms for listing pages: one indexed lookup by primary key for the whole page
+    @Query("SELECT p.id, p.rating1Count, p.rating2Count, p.rating3Count, p.rating4Count, p.rating5Count " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findRatingHistograms(@Param("ids") Collection<Long> ids);
 }
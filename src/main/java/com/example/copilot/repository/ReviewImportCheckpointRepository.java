@@ -0,0 +1,9 @@
+package com.example.copilot.repository;
+
+import com.example.copilot.entity.ReviewImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReviewImportCheckpointRepository extends JpaRepository<ReviewImportCheckpoint, String> {
+}
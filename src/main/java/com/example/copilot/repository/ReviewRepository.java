@@ -1,11 +1,16 @@
 package com.example.copilot.repository;
 
+import com.example.copilot.dto.ReviewDTO;
 import com.example.copilot.entity.Review;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +29,54 @@ public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecif
     Optional<Review> findByUserIdAndProductId(@Param("userId") Long userId, @Param("productId") Long productId);
     
     boolean existsByUserIdAndProductId(Long userId, Long productId);
+
+    // Every product the user has reviewed, for the review eligibility cache
+    @Query("SELECT r.product.id FROM Review r WHERE r.user.id = :userId")
+    List<Long> findProductIdsByUserId(@Param("userId") Long userId);
+
+    // PROJECTIONS: list reads join the product and user names into ReviewDTO in one select instead of
+    // initializing the LAZY product and user of every review (two extra queries per row).
+    @Query("SELECT new com.example.copilot.dto.ReviewDTO(r.id, r.content, r.rating, p.id, p.name, u.id, u.name, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.product p JOIN r.user u WHERE p.id = :productId ORDER BY r.id")
+    List<ReviewDTO> findDTOsByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT new com.example.copilot.dto.ReviewDTO(r.id, r.content, r.rating, p.id, p.name, u.id, u.name, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.product p JOIN r.user u WHERE u.id = :userId ORDER BY r.id")
+    List<ReviewDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    // Hydrates a page of ranked ids from the review search index; callers restore the ranking order
+    @Query("SELECT new com.example.copilot.dto.ReviewDTO(r.id, r.content, r.rating, p.id, p.name, u.id, u.name, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.product p JOIN r.user u WHERE r.id IN :ids")
+    List<ReviewDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT new com.example.copilot.dto.ReviewDTO(r.id, r.content, r.rating, p.id, p.name, u.id, u.name, r.createdAt, r.updatedAt) " +
+                   "FROM Review r JOIN r.product p JOIN r.user u WHERE p.id = :productId",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
+    Page<ReviewDTO> findDTOsByProductId(@Param("productId") Long productId, Pageable pageable);
+
+    // KEYSET FEEDS: newest first, seeking past (lastCreatedAt, lastId) on the (owner, created_at, id) indexes.
+    // Callers pass a Pageable of size+1 (page 0) to detect "has next"; List return types skip the COUNT query.
+    @Query("SELECT new com.example.copilot.dto.ReviewDTO(r.id, r.content, r.rating, p.id, p.name, u.id, u.name, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.product p JOIN r.user u WHERE r.product.id = :productId " +
+           "AND (:lastId IS NULL OR r.createdAt < :lastCreatedAt OR (r.createdAt = :lastCreatedAt AND r.id < :lastId)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findNextByProductId(
+        @Param("productId") Long productId,
+        @Param("lastCreatedAt") LocalDateTime lastCreatedAt,
+        @Param("lastId") Long lastId,
+        Pageable pageable
+    );
+
+    @Query("SELECT new com.example.copilot.dto.ReviewDTO(r.id, r.content, r.rating, p.id, p.name, u.id, u.name, r.createdAt, r.updatedAt) " +
+           "FROM Review r JOIN r.product p JOIN r.user u WHERE r.user.id = :userId " +
+           "AND (:lastId IS NULL OR r.createdAt < :lastCreatedAt OR (r.createdAt = :lastCreatedAt AND r.id < :lastId)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findNextByUserId(
+        @Param("userId") Long userId,
+        @Param("lastCreatedAt") LocalDateTime lastCreatedAt,
+        @Param("lastId") Long lastId,
+        Pageable pageable
+    );
     
     /**
      * Create a single, efficient native SQL query named 'getDashboardStats' to fetch multiple statistics in one database call
@@ -0,0 +1,37 @@
+package com.example.copilot.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * {@link User} that also carries the user's id and role, so they can be embedded in issued tokens.
+ */
+public class CustomUserDetails extends User {
+
+    private final Long id;
+    private final String role;
+
+    public CustomUserDetails(Long id, String email, String password, String role) {
+        super(email, password, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        this.id = id;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Fresh instance with the same values. Authentication erases the password of the details it was
+     * given, so cached details are never handed out directly.
+     */
+    CustomUserDetails copy() {
+        return new CustomUserDetails(id, getUsername(), getPassword(), role);
+    }
+}
@@ -1,40 +1,53 @@
 package com.example.copilot.security;
 
 import com.example.copilot.entity.User;
+import com.example.copilot.event.UserChangedEvent;
 import com.example.copilot.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Duration;
 
+/**
+ * Loads users by email. Loaded details are kept in a short-lived local cache
+ * ({@code security.user-details.ttl-seconds}), dropped as soon as the user is updated or deleted,
+ * for requests whose token carries no usable claims and for logins.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final Cache<String, CustomUserDetails> cache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${security.user-details.max-size:10000}") long maxSize,
+                                    @Value("${security.user-details.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return cache.get(email, this::load).copy();
+    }
+
+    private CustomUserDetails load(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return new CustomUserDetails(user.getId(), user.getEmail(), user.getPassword(), user.getRole());
+    }
 
-        List<GrantedAuthority> authorities = new ArrayList<>();
-        authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
-
-        return org.springframework.security.core.userdetails.User.builder()
-            .username(user.getEmail())
-            .password(user.getPassword())
-            .authorities(authorities)
-            .accountExpired(false)
-            .accountLocked(false)
-            .credentialsExpired(false)
-            .disabled(false)
-            .build();
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.invalidate(event.previousEmail());
     }
 }
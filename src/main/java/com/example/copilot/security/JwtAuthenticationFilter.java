@@ -4,10 +4,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -16,14 +17,29 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates bearer tokens. With {@code jwt.stateless} (the default) a token carrying current role
+ * and user id claims is authenticated from the claims alone, with the {@link JwtPrincipal} as
+ * principal. Tokens without those claims, tokens issued more than {@code jwt.claims-max-age} ago,
+ * and tokens of users changed since issue fall back to the user details service.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenUtil jwtTokenUtil;
+    private final JwtTokenVerifier jwtTokenVerifier;
     private final UserDetailsService userDetailsService;
+    private final boolean stateless;
+
+    public JwtAuthenticationFilter(JwtTokenVerifier jwtTokenVerifier,
+                                   UserDetailsService userDetailsService,
+                                   @Value("${jwt.stateless:true}") boolean stateless) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.userDetailsService = userDetailsService;
+        this.stateless = stateless;
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
@@ -32,31 +48,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwtToken = null;
+        // One parse (or cache hit) per token: signature, expiry and subject are checked together
+        JwtPrincipal principal = null;
         
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.warn("Unable to get JWT Token or JWT Token has expired: {}", e.getMessage());
+            principal = jwtTokenVerifier.verify(requestTokenHeader.substring(7)).orElse(null);
+            if (principal == null) {
+                log.warn("Unable to get JWT Token or JWT Token has expired");
             }
         } else {
             log.debug("JWT Token does not begin with Bearer String");
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                
-                if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = 
-                        new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                UsernamePasswordAuthenticationToken authToken;
+                if (stateless && jwtTokenVerifier.hasCurrentClaims(principal)) {
+                    authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+                } else {
+                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(principal.username());
+                    authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
                 }
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             } catch (Exception e) {
                 log.warn("Cannot set user authentication: {}", e.getMessage());
             }
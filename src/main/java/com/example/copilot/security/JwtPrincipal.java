@@ -0,0 +1,22 @@
+package com.example.copilot.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified. Immutable, so one instance can be
+ * shared by every request presenting the same token. {@code userId} and {@code role} are null for
+ * tokens issued without them.
+ */
+public record JwtPrincipal(String username, Long userId, String role, Instant issuedAt, Instant expiresAt)
+        implements Principal {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
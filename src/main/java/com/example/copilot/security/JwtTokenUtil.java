@@ -2,12 +2,10 @@ package com.example.copilot.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,14 +14,18 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil {
 
-    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
-    private String secret;
+    /** Role without the {@code ROLE_} prefix, embedded for {@link CustomUserDetails}. */
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "uid";
 
-    @Value("${jwt.expiration:86400}") // 24 hours
-    private Long expiration;
+    private final JwtTokenVerifier tokenVerifier;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final Long expiration;
+
+    public JwtTokenUtil(JwtTokenVerifier tokenVerifier,
+                        @Value("${jwt.expiration:86400}") Long expiration) { // 24 hours
+        this.tokenVerifier = tokenVerifier;
+        this.expiration = expiration;
     }
 
     public String getUsernameFromToken(String token) {
@@ -35,25 +37,17 @@ public class JwtTokenUtil {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
+        final Claims claims = tokenVerifier.parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        // Lets JwtAuthenticationFilter authenticate requests without loading the user
+        if (userDetails instanceof CustomUserDetails user) {
+            claims.put(ROLE_CLAIM, user.getRole());
+            claims.put(USER_ID_CLAIM, user.getId());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -63,12 +57,13 @@ public class JwtTokenUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey())
+                .signWith(tokenVerifier.signingKey())
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return tokenVerifier.verify(token)
+                .map(principal -> principal.username().equals(userDetails.getUsername()))
+                .orElse(false);
     }
 }
@@ -0,0 +1,162 @@
+package com.example.copilot.security;
+
+import com.example.copilot.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies bearer tokens for {@link JwtAuthenticationFilter}.
+ *
+ * The signing key and the (immutable, thread-safe) parser are built once. A token is parsed and its
+ * signature checked once; the resulting {@link JwtPrincipal} is cached until the token expires, keyed
+ * by the SHA-256 of the token so raw tokens are never held in memory. At most
+ * {@code jwt.verified-cache.max-size} tokens are cached. Invalid tokens are not cached.
+ *
+ * The role and user id embedded by {@link JwtTokenUtil} are only trusted for
+ * {@code jwt.claims-max-age} after the token was issued, and only while the user has not changed
+ * since: {@link UserChangedEvent}s are remembered for that window, and
+ * {@link #hasCurrentClaims(JwtPrincipal)} fails for older tokens. Those events are local to this
+ * instance and lost on restart, so the short window bounds how long another instance trusts the
+ * claims of a demoted or deleted user; past it the user is loaded again.
+ */
+@Component
+@Slf4j
+public class JwtTokenVerifier {
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> verified;
+    private final Cache<String, Instant> userChanges;
+    private final Duration claimsMaxAge;
+
+    public JwtTokenVerifier(@Value("${jwt.secret:mySecretKey123456789012345678901234567890}") String secret,
+                            @Value("${jwt.verified-cache.max-size:10000}") long maxCachedTokens,
+                            @Value("${jwt.claims-max-age:300}") long claimsMaxAgeSeconds) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(maxCachedTokens)
+            .expireAfter(new Expiry<String, JwtPrincipal>() {
+                @Override
+                public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+        this.claimsMaxAge = Duration.ofSeconds(claimsMaxAgeSeconds);
+        // A change only matters to tokens still inside the claims window
+        this.userChanges = Caffeine.newBuilder()
+            .expireAfterWrite(claimsMaxAge)
+            .build();
+    }
+
+    /**
+     * @return the token's principal, or empty if the token is malformed, forged or expired
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        JwtPrincipal principal = verified.getIfPresent(key);
+        if (principal == null) {
+            Claims claims;
+            try {
+                claims = parseClaims(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Rejected JWT: {}", e.getMessage());
+                return Optional.empty();
+            }
+            // Tokens without a subject or an expiry are never issued by JwtTokenUtil
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            Number userId = claims.get(JwtTokenUtil.USER_ID_CLAIM, Number.class);
+            principal = new JwtPrincipal(claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                claims.get(JwtTokenUtil.ROLE_CLAIM, String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant());
+            verified.put(key, principal);
+        }
+        return principal.isExpired(Instant.now()) ? Optional.empty() : Optional.of(principal);
+    }
+
+    /**
+     * Whether the principal's role and user id can be used without loading the user: they are present,
+     * the token was issued within {@code jwt.claims-max-age}, and the user has not been updated or
+     * deleted since.
+     */
+    public boolean hasCurrentClaims(JwtPrincipal principal) {
+        if (principal.role() == null || principal.userId() == null || principal.issuedAt() == null) {
+            return false;
+        }
+        if (!principal.issuedAt().plus(claimsMaxAge).isAfter(Instant.now())) {
+            return false;
+        }
+        Instant changedAt = userChanges.getIfPresent(principal.username());
+        // Issue times have second precision: a token from the second of the change counts as older
+        return changedAt == null || principal.issuedAt().isAfter(changedAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userChanges.put(event.previousEmail(), Instant.now());
+    }
+
+    /**
+     * Parses and verifies the token without the cache.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    SecretKey signingKey() {
+        return signingKey;
+    }
+
+    long cachedTokens() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
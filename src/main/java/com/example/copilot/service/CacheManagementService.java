@@ -18,6 +18,7 @@ import java.util.Collection;
 public class CacheManagementService {
 
     private final CacheManager cacheManager;
+    private final CacheWarmingService cacheWarmingService;
 
     /**
      * Clears all entries from a specific cache.
@@ -97,13 +98,22 @@ public class CacheManagementService {
 
     /**
      * Preloads product details cache for commonly accessed products.
-     * This can be called during application startup or scheduled periodically.
+     * Loads run in parallel on the warm-up pool; ids that no longer exist are skipped.
      * 
      * @param productIds collection of product IDs to preload
+     * @return counts of warmed entries
      */
-    public void preloadProductCache(Collection<Long> productIds) {
-        // This would require injecting ProductService, which would create circular dependency
-        // Instead, this method serves as a placeholder for manual cache warming strategies
+    public CacheWarmingService.WarmupResult preloadProductCache(Collection<Long> productIds) {
         log.info("Cache preloading requested for {} products", productIds.size());
+        return cacheWarmingService.warmProducts(productIds);
+    }
+
+    /**
+     * Re-warms product-details and product-search with the currently hottest keys.
+     * 
+     * @return counts of warmed entries
+     */
+    public CacheWarmingService.WarmupResult warmHotKeys() {
+        return cacheWarmingService.warmHotKeys();
     }
 }
@@ -0,0 +1,208 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.SearchKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the product-details and product-search caches with the hottest keys recorded by
+ * {@link HotKeyTracker}. The hot list is persisted on shutdown and reloaded on startup; as an
+ * {@link ApplicationRunner} the startup warm completes before readiness reports ACCEPTING_TRAFFIC.
+ */
+@Service
+@Slf4j
+public class CacheWarmingService implements ApplicationRunner {
+
+    /**
+     * Persisted hot list, most frequent first.
+     */
+    record HotKeys(List<Long> productIds, List<SearchKey> searches) {
+    }
+
+    public record WarmupResult(int productsWarmed, int searchesWarmed, int failures, long elapsedMillis) {
+    }
+
+    private final ProductService productService;
+    private final HotKeyTracker hotKeyTracker;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path file;
+    private final int topN;
+    private final long timeoutSeconds;
+    private final ExecutorService warmupExecutor;
+
+    public CacheWarmingService(ProductService productService,
+                               HotKeyTracker hotKeyTracker,
+                               ObjectMapper objectMapper,
+                               @Value("${cache.warmup.enabled:true}") boolean enabled,
+                               @Value("${cache.warmup.directory:${java.io.tmpdir}}") String directory,
+                               @Value("${cache.warmup.file:cache-warmup.json}") String file,
+                               @Value("${cache.warmup.top-n:100}") int topN,
+                               @Value("${cache.warmup.parallelism:4}") int parallelism,
+                               @Value("${cache.warmup.timeout-seconds:30}") long timeoutSeconds) {
+        this.productService = productService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        // A relative file name lives in the warm-up directory, never in the process working directory
+        this.file = Paths.get(directory).resolve(file);
+        this.topN = topN;
+        this.timeoutSeconds = timeoutSeconds;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.warmupExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reloads the persisted hot list and warms it before the application reports ready.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        HotKeys hotKeys = load();
+        if (hotKeys.productIds().isEmpty() && hotKeys.searches().isEmpty()) {
+            return;
+        }
+        hotKeyTracker.seed(hotKeys.productIds(), hotKeys.searches());
+        WarmupResult result = warm(hotKeys.productIds(), hotKeys.searches());
+        log.info("Startup cache warm-up: {} products, {} searches, {} failures in {} ms",
+            result.productsWarmed(), result.searchesWarmed(), result.failures(), result.elapsedMillis());
+    }
+
+    /**
+     * Periodically re-warms the current hot set and checkpoints it, so a crash loses little history.
+     */
+    @Scheduled(initialDelayString = "${cache.warmup.interval-ms:600000}", fixedDelayString = "${cache.warmup.interval-ms:600000}")
+    public void scheduledWarmup() {
+        if (!enabled) {
+            return;
+        }
+        warmHotKeys();
+        persist();
+    }
+
+    /**
+     * Warms the caches with the current top-N product ids and search keys.
+     *
+     * @return counts of warmed entries
+     */
+    public WarmupResult warmHotKeys() {
+        return warm(hotKeyTracker.topProductIds(topN), hotKeyTracker.topSearches(topN));
+    }
+
+    /**
+     * Warms product-details for the given ids.
+     *
+     * @param productIds product ids to load
+     * @return counts of warmed entries
+     */
+    public WarmupResult warmProducts(Collection<Long> productIds) {
+        return warm(List.copyOf(productIds), List.of());
+    }
+
+    WarmupResult warm(List<Long> productIds, List<SearchKey> searches) {
+        long start = System.currentTimeMillis();
+        AtomicInteger products = new AtomicInteger();
+        AtomicInteger searchCount = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(productIds.size() + searches.size());
+        for (Long id : productIds) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                productService.findById(id);
+                products.incrementAndGet();
+            }, warmupExecutor).exceptionally(ex -> countFailure(failures, "product " + id, ex)));
+        }
+        for (SearchKey key : searches) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                productService.searchProducts(key.keyword(), key.categoryId(), key.minPrice(), key.maxPrice(), key.toPageable());
+                searchCount.incrementAndGet();
+            }, warmupExecutor).exceptionally(ex -> countFailure(failures, "search " + key, ex)));
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up did not finish within {}s; continuing with a partially warm cache", timeoutSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Cache warm-up failed", e);
+        }
+        return new WarmupResult(products.get(), searchCount.get(), failures.get(), System.currentTimeMillis() - start);
+    }
+
+    private Void countFailure(AtomicInteger failures, String what, Throwable ex) {
+        failures.incrementAndGet();
+        log.debug("Cache warm-up skipped {}: {}", what, ex.getMessage());
+        return null;
+    }
+
+    /**
+     * Writes the current hot list to disk (write-then-rename, so a crash never leaves a torn file).
+     */
+    public void persist() {
+        HotKeys hotKeys = new HotKeys(hotKeyTracker.topProductIds(topN), hotKeyTracker.topSearches(topN));
+        if (hotKeys.productIds().isEmpty() && hotKeys.searches().isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "cache-warmup", ".tmp");
+            objectMapper.writeValue(tmp.toFile(), hotKeys);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not persist cache warm-up list to {}", file, e);
+        }
+    }
+
+    HotKeys load() {
+        if (!Files.isReadable(file)) {
+            return new HotKeys(List.of(), List.of());
+        }
+        try {
+            HotKeys hotKeys = objectMapper.readValue(file.toFile(), HotKeys.class);
+            return new HotKeys(
+                hotKeys.productIds() != null ? hotKeys.productIds() : List.of(),
+                hotKeys.searches() != null ? hotKeys.searches() : List.of());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache warm-up list {}", file, e);
+            return new HotKeys(List.of(), List.of());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            persist();
+        }
+        warmupExecutor.shutdownNow();
+    }
+}
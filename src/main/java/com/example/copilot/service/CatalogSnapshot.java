@@ -0,0 +1,313 @@
+package com.example.copilot.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented copy of the product columns used for numeric filtering.
+ *
+ * Rows are stored in parallel primitive arrays sorted by (price, id), with a secondary permutation
+ * sorted by (stock, id). Price ranges and low-stock thresholds are answered by binary search; category
+ * filters by a tight scan over an {@code int[]} of dictionary-encoded category ids, which the JIT can
+ * vectorize. Only ids are returned; callers hydrate the page they actually serve.
+ *
+ * Instances are never mutated: changes produce a new snapshot ({@link #withChanges}).
+ */
+public final class CatalogSnapshot {
+
+    /** Dictionary code for products without a category. */
+    static final int NO_CATEGORY = -1;
+
+    /**
+     * One page of matching ids, in the snapshot's natural order for the query, and the total match count.
+     */
+    public record IdPage(long[] ids, long total) {
+    }
+
+    /**
+     * Row to add or replace in a snapshot; {@code price == null} removes the product.
+     */
+    record Row(long id, Double price, int stock, Long categoryId) {
+    }
+
+    private final long[] ids;
+    private final double[] prices;
+    private final int[] stocks;
+    private final int[] categories;
+    private final int[] byStock;
+    private final Map<Long, Integer> categoryCodes;
+
+    private CatalogSnapshot(long[] ids, double[] prices, int[] stocks, int[] categories,
+                            int[] byStock, Map<Long, Integer> categoryCodes) {
+        this.ids = ids;
+        this.prices = prices;
+        this.stocks = stocks;
+        this.categories = categories;
+        this.byStock = byStock;
+        this.categoryCodes = categoryCodes;
+    }
+
+    /**
+     * Builds a snapshot from unsorted columns. {@code categoryIds[i]} is null for uncategorized products.
+     */
+    static CatalogSnapshot of(long[] ids, double[] prices, int[] stocks, Long[] categoryIds) {
+        int n = ids.length;
+        int[] order = sortedRows(n, byPrice(prices, ids));
+
+        long[] sortedIds = new long[n];
+        double[] sortedPrices = new double[n];
+        int[] sortedStocks = new int[n];
+        int[] sortedCategories = new int[n];
+        Map<Long, Integer> codes = new HashMap<>();
+        for (int row = 0; row < n; row++) {
+            int source = order[row];
+            sortedIds[row] = ids[source];
+            sortedPrices[row] = prices[source];
+            sortedStocks[row] = stocks[source];
+            sortedCategories[row] = encode(categoryIds[source], codes);
+        }
+        int[] byStock = sortedRows(n, byStock(sortedStocks, sortedIds));
+        return new CatalogSnapshot(sortedIds, sortedPrices, sortedStocks, sortedCategories, byStock, codes);
+    }
+
+    /**
+     * Returns a new snapshot with the given rows added, replaced or removed; this snapshot is unchanged.
+     *
+     * Surviving rows keep their price and stock order, so only the k changed rows are sorted and then
+     * merged with them: O(n + k log k) instead of re-sorting the whole catalog per batch.
+     */
+    CatalogSnapshot withChanges(Map<Long, Row> changes) {
+        long[] changedIds = new long[changes.size()];
+        int c = 0;
+        for (Long id : changes.keySet()) {
+            changedIds[c++] = id;
+        }
+        Arrays.sort(changedIds);
+
+        // Changed rows that stay in the catalog, as columns of their own
+        int k = 0;
+        long[] addedIds = new long[changes.size()];
+        double[] addedPrices = new double[changes.size()];
+        int[] addedStocks = new int[changes.size()];
+        Long[] addedCategories = new Long[changes.size()];
+        for (Row change : changes.values()) {
+            if (change.price() != null) {
+                addedIds[k] = change.id();
+                addedPrices[k] = change.price();
+                addedStocks[k] = change.stock();
+                addedCategories[k] = change.categoryId();
+                k++;
+            }
+        }
+        int[] addedByPrice = sortedRows(k, byPrice(addedPrices, addedIds));
+        int[] addedByStock = sortedRows(k, byStock(addedStocks, addedIds));
+
+        Map<Long, Integer> codes = new HashMap<>(categoryCodes);
+        int[] addedCodes = new int[k];
+        for (int i = 0; i < k; i++) {
+            addedCodes[i] = encode(addedCategories[i], codes);
+        }
+
+        int survivors = 0;
+        for (long id : ids) {
+            survivors += Arrays.binarySearch(changedIds, id) < 0 ? 1 : 0;
+        }
+        int n = survivors + k;
+        long[] newIds = new long[n];
+        double[] newPrices = new double[n];
+        int[] newStocks = new int[n];
+        int[] newCategories = new int[n];
+        int[] oldToNew = new int[ids.length];
+        int[] addedToNew = new int[k];
+
+        // Merge by (price, id): surviving rows in their existing order, changed rows in sorted order
+        int old = 0;
+        int added = 0;
+        for (int row = 0; row < n; row++) {
+            while (old < ids.length && Arrays.binarySearch(changedIds, ids[old]) >= 0) {
+                oldToNew[old++] = -1;
+            }
+            boolean takeOld = added == k || (old < ids.length
+                && compare(prices[old], ids[old], addedPrices[addedByPrice[added]], addedIds[addedByPrice[added]]) < 0);
+            if (takeOld) {
+                newIds[row] = ids[old];
+                newPrices[row] = prices[old];
+                newStocks[row] = stocks[old];
+                newCategories[row] = categories[old];
+                oldToNew[old++] = row;
+            } else {
+                int source = addedByPrice[added++];
+                newIds[row] = addedIds[source];
+                newPrices[row] = addedPrices[source];
+                newStocks[row] = addedStocks[source];
+                newCategories[row] = addedCodes[source];
+                addedToNew[source] = row;
+            }
+        }
+        while (old < ids.length) {
+            oldToNew[old++] = -1;
+        }
+
+        // Same merge by (stock, id) over the previous stock order, remapped to the new rows
+        int[] newByStock = new int[n];
+        int from = 0;
+        added = 0;
+        for (int row = 0; row < n; row++) {
+            while (from < byStock.length && oldToNew[byStock[from]] < 0) {
+                from++;
+            }
+            boolean takeOld = added == k || (from < byStock.length
+                && compare(stocks[byStock[from]], ids[byStock[from]],
+                           addedStocks[addedByStock[added]], addedIds[addedByStock[added]]) < 0);
+            newByStock[row] = takeOld ? oldToNew[byStock[from++]] : addedToNew[addedByStock[added++]];
+        }
+
+        return new CatalogSnapshot(newIds, newPrices, newStocks, newCategories, newByStock, codes);
+    }
+
+    /** Orders two rows; ids are unique, so no two rows compare equal. */
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    private static RowOrder byPrice(double[] prices, long[] ids) {
+        return (a, b) -> compare(prices[a], ids[a], prices[b], ids[b]);
+    }
+
+    private static RowOrder byStock(int[] stocks, long[] ids) {
+        return (a, b) -> compare(stocks[a], ids[a], stocks[b], ids[b]);
+    }
+
+    private static int compare(double key, long id, double otherKey, long otherId) {
+        int byKey = Double.compare(key, otherKey);
+        return byKey != 0 ? byKey : Long.compare(id, otherId);
+    }
+
+    // Row indices 0..n-1 sorted by the given order; a merge sort over int[], so rows are never boxed
+    private static int[] sortedRows(int n, RowOrder order) {
+        int[] rows = new int[n];
+        for (int i = 0; i < n; i++) {
+            rows[i] = i;
+        }
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n - width; lo += 2 * width) {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, n);
+                int left = lo;
+                int right = mid;
+                for (int out = lo; out < hi; out++) {
+                    buffer[out] = right >= hi || (left < mid && order.compare(rows[left], rows[right]) < 0)
+                        ? rows[left++] : rows[right++];
+                }
+                System.arraycopy(buffer, lo, rows, lo, hi - lo);
+            }
+        }
+        return rows;
+    }
+
+    private static int encode(Long categoryId, Map<Long, Integer> codes) {
+        return categoryId == null ? NO_CATEGORY : codes.computeIfAbsent(categoryId, key -> codes.size());
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Products with {@code min <= price <= max}, cheapest first.
+     */
+    public IdPage priceRange(double min, double max, long offset, int limit) {
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        int total = Math.max(0, to - from);
+        int start = (int) Math.min(from + offset, Math.max(from, to));
+        int end = Math.min(start + limit, Math.max(from, to));
+        return new IdPage(Arrays.copyOfRange(ids, start, end), total);
+    }
+
+    /**
+     * Products with {@code stock < threshold}, lowest stock first.
+     */
+    public IdPage lowStock(int threshold, long offset, int limit) {
+        int lo = 0;
+        int hi = byStock.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (stocks[byStock[mid]] < threshold) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int total = lo;
+        int start = (int) Math.min(offset, total);
+        int end = Math.min(start + limit, total);
+        long[] page = new long[end - start];
+        for (int i = start; i < end; i++) {
+            page[i - start] = ids[byStock[i]];
+        }
+        return new IdPage(page, total);
+    }
+
+    /**
+     * Products in the category, cheapest first.
+     */
+    public IdPage inCategory(long categoryId, long offset, int limit) {
+        Integer code = categoryCodes.get(categoryId);
+        if (code == null) {
+            return new IdPage(new long[0], 0);
+        }
+        int c = code;
+        int[] column = categories;
+        int total = 0;
+        for (int row = 0; row < column.length; row++) {
+            total += column[row] == c ? 1 : 0;
+        }
+        int start = (int) Math.min(offset, total);
+        int end = Math.min(start + limit, total);
+        long[] page = new long[end - start];
+        int seen = 0;
+        for (int row = 0; row < column.length && seen < end; row++) {
+            if (column[row] == c) {
+                if (seen >= start) {
+                    page[seen - start] = ids[row];
+                }
+                seen++;
+            }
+        }
+        return new IdPage(page, total);
+    }
+
+    // First row with price >= min
+    private int lowerBound(double min) {
+        int lo = 0;
+        int hi = prices.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] < min) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First row with price > max
+    private int upperBound(double max) {
+        int lo = 0;
+        int hi = prices.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (prices[mid] <= max) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.copilot.service;
+
+import com.example.copilot.event.CatalogChangedEvent;
+import com.example.copilot.event.ProductChangedEvent;
+import com.example.copilot.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the {@link CatalogSnapshot} served to price-range, category and low-stock listings.
+ *
+ * The snapshot is loaded once the application is ready and then kept current by copy-on-write:
+ * committed single-product changes are queued and applied in the background by building a new
+ * snapshot and swapping the reference; bulk changes trigger a full reload. Readers never block and
+ * see either the old or the new snapshot. Until the first load completes, {@link #current()} is
+ * null and callers use the database.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final Queue<ProductChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile Future<?> scheduledDrain;
+
+    public CatalogSnapshotService(ProductRepository productRepository,
+                                  @Value("${catalog.snapshot.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the latest snapshot, or null if disabled or not yet loaded
+     */
+    public CatalogSnapshot current() {
+        return enabled ? snapshot : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            reloadRequested.set(true);
+            scheduleDrain();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            pending.add(event);
+            scheduleDrain();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (enabled) {
+            reloadRequested.set(true);
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduledDrain = rebuildExecutor.submit(this::drain);
+        }
+    }
+
+    /**
+     * Waits for the most recently scheduled drain, which covers every change queued before this call.
+     */
+    void awaitDrain() throws InterruptedException, ExecutionException {
+        Future<?> drain = scheduledDrain;
+        if (drain != null) {
+            drain.get();
+        }
+    }
+
+    /**
+     * Applies everything queued so far as one new snapshot. Events queued while a reload query runs
+     * are applied again on the next drain; upserts and deletes are idempotent, so that is harmless.
+     */
+    void drain() {
+        drainScheduled.set(false);
+        Map<Long, CatalogSnapshot.Row> changes = new LinkedHashMap<>();
+        ProductChangedEvent event;
+        while ((event = pending.poll()) != null) {
+            changes.put(event.productId(), event.deleted()
+                ? new CatalogSnapshot.Row(event.productId(), null, 0, null)
+                : new CatalogSnapshot.Row(event.productId(), event.price(), event.stock(), event.categoryId()));
+        }
+        try {
+            CatalogSnapshot base = snapshot;
+            if (reloadRequested.getAndSet(false) || base == null) {
+                snapshot = load();
+            } else if (!changes.isEmpty()) {
+                snapshot = base.withChanges(changes);
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the next change retries with a full reload
+            reloadRequested.set(true);
+            log.warn("Catalog snapshot rebuild failed", e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with a fresh load on the calling thread.
+     */
+    void reloadNow() {
+        snapshot = load();
+    }
+
+    private CatalogSnapshot load() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = productRepository.findCatalogColumns();
+        int n = rows.size();
+        long[] ids = new long[n];
+        double[] prices = new double[n];
+        int[] stocks = new int[n];
+        Long[] categoryIds = new Long[n];
+        for (int i = 0; i < n; i++) {
+            Object[] row = rows.get(i);
+            ids[i] = (Long) row[0];
+            prices[i] = (Double) row[1];
+            stocks[i] = (Integer) row[2];
+            categoryIds[i] = (Long) row[3];
+        }
+        CatalogSnapshot loaded = CatalogSnapshot.of(ids, prices, stocks, categoryIds);
+        log.info("Loaded catalog snapshot with {} products in {} ms", n, System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.CategoryProductCountDTO;
+import com.example.copilot.event.CatalogChangedEvent;
+import com.example.copilot.event.CategoryChangedEvent;
+import com.example.copilot.event.ProductChangedEvent;
+import com.example.copilot.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory product counts per category, for navigation menus.
+ *
+ * Direct counts are moved incrementally by committed single-product writes; subtree counts are rolled
+ * up over the current {@link CategoryTree} when read. A grouped COUNT query reconciles the counters on
+ * startup, on a schedule, and after bulk or category deletes, repairing any drift from writes that
+ * raced a reconciliation or bypassed {@code ProductServiceImpl}.
+ */
+@Service
+@Slf4j
+public class CategoryProductCountService {
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeService categoryTreeService;
+
+    private volatile ConcurrentMap<Long, Long> directCounts;
+
+    public CategoryProductCountService(ProductRepository productRepository, CategoryTreeService categoryTreeService) {
+        this.productRepository = productRepository;
+        this.categoryTreeService = categoryTreeService;
+    }
+
+    /**
+     * Direct and subtree product counts for every category, in tree preorder.
+     */
+    public List<CategoryProductCountDTO> getCounts() {
+        Map<Long, Long> direct = current();
+        Map<Long, Long> subtree = categoryTreeService.current().subtreeSums(direct);
+        List<CategoryProductCountDTO> counts = new ArrayList<>(subtree.size());
+        subtree.forEach((categoryId, total) ->
+            counts.add(new CategoryProductCountDTO(categoryId, direct.getOrDefault(categoryId, 0L), total)));
+        return counts;
+    }
+
+    private ConcurrentMap<Long, Long> current() {
+        ConcurrentMap<Long, Long> counts = directCounts;
+        if (counts == null) {
+            synchronized (this) {
+                counts = directCounts;
+                if (counts == null) {
+                    counts = load();
+                    directCounts = counts;
+                }
+            }
+        }
+        return counts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ConcurrentMap<Long, Long> counts = directCounts;
+        if (counts == null) {
+            return; // the first load will include this write
+        }
+        if (event.previousCategoryId() != null) {
+            counts.merge(event.previousCategoryId(), -1L, Long::sum);
+        }
+        if (!event.deleted() && event.categoryId() != null) {
+            counts.merge(event.categoryId(), 1L, Long::sum);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        // Deleting a category cascades to its products without per-product events
+        if (event.deleted()) {
+            reconcile();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Replaces the counters with a fresh grouped count.
+     *
+     * @return number of categories whose counter had drifted
+     */
+    @Scheduled(initialDelayString = "${category.counts.reconcile-interval-ms:300000}",
+               fixedDelayString = "${category.counts.reconcile-interval-ms:300000}")
+    public synchronized int reconcile() {
+        ConcurrentMap<Long, Long> fresh = load();
+        ConcurrentMap<Long, Long> previous = directCounts;
+        int drifted = 0;
+        if (previous != null) {
+            Map<Long, Long> union = new HashMap<>(previous);
+            fresh.forEach(union::putIfAbsent);
+            for (Long categoryId : union.keySet()) {
+                if (previous.getOrDefault(categoryId, 0L).longValue() != fresh.getOrDefault(categoryId, 0L).longValue()) {
+                    drifted++;
+                }
+            }
+            if (drifted > 0) {
+                log.info("Category product counts reconciled; {} categories had drifted", drifted);
+            }
+        }
+        directCounts = fresh;
+        return drifted;
+    }
+
+    private ConcurrentMap<Long, Long> load() {
+        ConcurrentMap<Long, Long> counts = new ConcurrentHashMap<>();
+        for (Object[] row : productRepository.countProductsPerCategory()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.copilot.service;
 
 import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.dto.CategoryTreeNodeDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,6 +14,9 @@ public interface CategoryService {
     CategoryDTO findById(Long id);
     List<CategoryDTO> findAllRootCategories();
     List<CategoryDTO> findSubcategories(Long parentId);
+    List<CategoryDTO> findBreadcrumb(Long id);
+    List<Long> findDescendantIds(Long id);
+    List<CategoryTreeNodeDTO> getCategoryTree();
     Page<CategoryDTO> searchCategories(String keyword, Pageable pageable);
     Page<CategoryDTO> findRootCategories(Pageable pageable);
 }
@@ -0,0 +1,357 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.dto.CategoryTreeNodeDTO;
+import com.example.copilot.entity.Category;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the category hierarchy.
+ *
+ * Nodes are stored in parallel arrays in depth-first preorder, siblings ordered by id. Each node's
+ * subtree is the contiguous interval {@code [index, end[index])} of that order (its Euler-tour
+ * interval), so "is X under Y" is two comparisons and a descendant set is an array slice. Children
+ * are found by hopping from one sibling's interval end to the next. Breadcrumbs are precomputed.
+ *
+ * A token index over normalized names and descriptions answers keyword search in memory: sorted
+ * distinct tokens with posting lists, so each query token is a binary search plus a prefix range.
+ *
+ * Instances are never mutated; {@link CategoryTreeService} swaps in a new one after category writes.
+ */
+public final class CategoryTree {
+
+    /**
+     * One category as loaded from the database; {@code parentId == null} for roots.
+     */
+    record Row(long id, String name, String description, Long parentId) {
+    }
+
+    private final long[] ids;
+    private final int[] parents;
+    private final int[] ends;
+    private final String[] names;
+    private final String[] descriptions;
+    private final int[][] breadcrumbs;
+    private final Map<Long, Integer> indexById;
+    private final List<CategoryTreeNodeDTO> hierarchy;
+    private final String[] searchNames;
+    private final String[] tokens;
+    private final int[][] namePostings;
+    private final int[][] allPostings;
+
+    private CategoryTree(long[] ids, int[] parents, int[] ends, String[] names, String[] descriptions,
+                         int[][] breadcrumbs, Map<Long, Integer> indexById) {
+        this.ids = ids;
+        this.parents = parents;
+        this.ends = ends;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.breadcrumbs = breadcrumbs;
+        this.indexById = indexById;
+        this.hierarchy = buildHierarchy();
+
+        this.searchNames = new String[ids.length];
+        Map<String, List<Integer>> nameTokens = new HashMap<>();
+        Map<String, List<Integer>> allTokens = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            searchNames[i] = Category.normalizeSearchText(names[i]);
+            for (String token : tokenize(searchNames[i])) {
+                addPosting(nameTokens, token, i);
+                addPosting(allTokens, token, i);
+            }
+            for (String token : tokenize(Category.normalizeSearchText(descriptions[i]))) {
+                addPosting(allTokens, token, i);
+            }
+        }
+        this.tokens = allTokens.keySet().stream().sorted().toArray(String[]::new);
+        this.namePostings = new int[tokens.length][];
+        this.allPostings = new int[tokens.length][];
+        for (int t = 0; t < tokens.length; t++) {
+            namePostings[t] = toArray(nameTokens.getOrDefault(tokens[t], List.of()));
+            allPostings[t] = toArray(allTokens.get(tokens[t]));
+        }
+    }
+
+    private static String[] tokenize(String normalized) {
+        return normalized == null || normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static void addPosting(Map<String, List<Integer>> postings, String token, int index) {
+        List<Integer> list = postings.computeIfAbsent(token, k -> new ArrayList<>());
+        // Nodes are added in index order, so a repeat of the same token is always the last entry
+        if (list.isEmpty() || list.get(list.size() - 1) != index) {
+            list.add(index);
+        }
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Builds a tree from unordered rows. Rows whose parent is missing, or that sit on a parent cycle,
+     * are unreachable from any root and are left out.
+     */
+    static CategoryTree of(List<Row> rows) {
+        Map<Long, List<Row>> childrenByParent = new HashMap<>();
+        List<Row> roots = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.parentId() == null) {
+                roots.add(row);
+            } else {
+                childrenByParent.computeIfAbsent(row.parentId(), k -> new ArrayList<>()).add(row);
+            }
+        }
+        Comparator<Row> byId = Comparator.comparingLong(Row::id);
+        roots.sort(byId);
+        childrenByParent.values().forEach(children -> children.sort(byId));
+
+        int capacity = rows.size();
+        long[] ids = new long[capacity];
+        int[] parents = new int[capacity];
+        int[] ends = new int[capacity];
+        String[] names = new String[capacity];
+        String[] descriptions = new String[capacity];
+        int[][] breadcrumbs = new int[capacity][];
+        Map<Long, Integer> indexById = new HashMap<>(capacity * 2);
+
+        // Iterative preorder walk: a node's interval closes once all of its children are popped
+        int n = 0;
+        Deque<int[]> stack = new ArrayDeque<>();    // {index, next child position}
+        Deque<List<Row>> childLists = new ArrayDeque<>();
+        for (Row root : roots) {
+            n = visit(root, -1, n, ids, parents, names, descriptions, breadcrumbs, indexById);
+            stack.push(new int[]{n - 1, 0});
+            childLists.push(childrenByParent.getOrDefault(root.id(), List.of()));
+            while (!stack.isEmpty()) {
+                int[] frame = stack.peek();
+                List<Row> children = childLists.peek();
+                if (frame[1] < children.size()) {
+                    Row child = children.get(frame[1]++);
+                    if (indexById.containsKey(child.id())) {
+                        continue;
+                    }
+                    n = visit(child, frame[0], n, ids, parents, names, descriptions, breadcrumbs, indexById);
+                    stack.push(new int[]{n - 1, 0});
+                    childLists.push(childrenByParent.getOrDefault(child.id(), List.of()));
+                } else {
+                    ends[frame[0]] = n;
+                    stack.pop();
+                    childLists.pop();
+                }
+            }
+        }
+
+        return new CategoryTree(Arrays.copyOf(ids, n), Arrays.copyOf(parents, n), Arrays.copyOf(ends, n),
+            Arrays.copyOf(names, n), Arrays.copyOf(descriptions, n), Arrays.copyOf(breadcrumbs, n), indexById);
+    }
+
+    private static int visit(Row row, int parent, int n, long[] ids, int[] parents, String[] names,
+                             String[] descriptions, int[][] breadcrumbs, Map<Long, Integer> indexById) {
+        ids[n] = row.id();
+        parents[n] = parent;
+        names[n] = row.name();
+        descriptions[n] = row.description();
+        int[] trail = parent < 0 ? new int[1] : Arrays.copyOf(breadcrumbs[parent], breadcrumbs[parent].length + 1);
+        trail[trail.length - 1] = n;
+        breadcrumbs[n] = trail;
+        indexById.put(row.id(), n);
+        return n + 1;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(Long categoryId) {
+        return indexById.containsKey(categoryId);
+    }
+
+    /**
+     * @return the category, or null if it is not in the tree
+     */
+    public CategoryDTO get(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        return index == null ? null : toDTO(index);
+    }
+
+    public List<CategoryDTO> roots() {
+        List<CategoryDTO> roots = new ArrayList<>();
+        for (int i = 0; i < ids.length; i = ends[i]) {
+            roots.add(toDTO(i));
+        }
+        return roots;
+    }
+
+    /**
+     * @return direct children ordered by id; empty for leaves and unknown ids
+     */
+    public List<CategoryDTO> children(Long parentId) {
+        Integer index = indexById.get(parentId);
+        if (index == null) {
+            return List.of();
+        }
+        List<CategoryDTO> children = new ArrayList<>();
+        for (int child = index + 1; child < ends[index]; child = ends[child]) {
+            children.add(toDTO(child));
+        }
+        return children;
+    }
+
+    /**
+     * @return the path from the root down to and including the category; empty for unknown ids
+     */
+    public List<CategoryDTO> breadcrumb(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        if (index == null) {
+            return List.of();
+        }
+        int[] trail = breadcrumbs[index];
+        List<CategoryDTO> path = new ArrayList<>(trail.length);
+        for (int node : trail) {
+            path.add(toDTO(node));
+        }
+        return path;
+    }
+
+    /**
+     * @return ids of all categories strictly below the given one, in preorder; empty for unknown ids
+     */
+    public long[] descendantIds(Long categoryId) {
+        Integer index = indexById.get(categoryId);
+        return index == null ? new long[0] : Arrays.copyOfRange(ids, index + 1, ends[index]);
+    }
+
+    /**
+     * @return true if {@code categoryId} is {@code ancestorId} or lies in its subtree
+     */
+    public boolean isInSubtree(Long categoryId, Long ancestorId) {
+        Integer node = indexById.get(categoryId);
+        Integer ancestor = indexById.get(ancestorId);
+        return node != null && ancestor != null && ancestor <= node && node < ends[ancestor];
+    }
+
+    /**
+     * Sums a per-category value over every subtree in one reverse-preorder pass: children sit after
+     * their parent in preorder, so each node's total is final before it is added to its parent.
+     *
+     * @param valuesById value per category id; missing ids count as zero
+     * @return subtree total per category id, for every category in the tree, in preorder
+     */
+    public Map<Long, Long> subtreeSums(Map<Long, Long> valuesById) {
+        long[] sums = new long[ids.length];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            sums[i] += valuesById.getOrDefault(ids[i], 0L);
+            if (parents[i] >= 0) {
+                sums[parents[i]] += sums[i];
+            }
+        }
+        Map<Long, Long> byId = new LinkedHashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            byId.put(ids[i], sums[i]);
+        }
+        return byId;
+    }
+
+    /**
+     * Categories whose name or description has, for every query word, a word starting with it.
+     * Ranked: exact name match, then name prefix match, then all words found in the name, then
+     * matches that need the description; ties by name and id.
+     *
+     * @param keyword free text; normalized the same way as category names
+     * @return ranked matches; empty if the keyword has no searchable characters
+     */
+    public List<CategoryDTO> search(String keyword) {
+        String query = Category.normalizeSearchText(keyword);
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0) {
+            return List.of();
+        }
+        BitSet anyMatch = null;
+        BitSet nameMatch = null;
+        for (String queryToken : queryTokens) {
+            BitSet any = new BitSet(ids.length);
+            BitSet name = new BitSet(ids.length);
+            for (int t = firstTokenAtLeast(queryToken); t < tokens.length && tokens[t].startsWith(queryToken); t++) {
+                Arrays.stream(allPostings[t]).forEach(any::set);
+                Arrays.stream(namePostings[t]).forEach(name::set);
+            }
+            if (anyMatch == null) {
+                anyMatch = any;
+                nameMatch = name;
+            } else {
+                anyMatch.and(any);
+                nameMatch.and(name);
+            }
+        }
+
+        BitSet nameMatches = nameMatch;
+        int[] ranks = new int[ids.length];
+        List<Integer> matches = new ArrayList<>();
+        for (int i = anyMatch.nextSetBit(0); i >= 0; i = anyMatch.nextSetBit(i + 1)) {
+            ranks[i] = query.equals(searchNames[i]) ? 0
+                : searchNames[i].startsWith(query) ? 1
+                : nameMatches.get(i) ? 2
+                : 3;
+            matches.add(i);
+        }
+        matches.sort(Comparator.<Integer>comparingInt(i -> ranks[i])
+            .thenComparing(i -> searchNames[i])
+            .thenComparingLong(i -> ids[i]));
+        List<CategoryDTO> results = new ArrayList<>(matches.size());
+        for (int i : matches) {
+            results.add(toDTO(i));
+        }
+        return results;
+    }
+
+    private int firstTokenAtLeast(String prefix) {
+        int position = Arrays.binarySearch(tokens, prefix);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * The whole hierarchy as nested nodes. The returned structure is shared by all callers of this
+     * snapshot and must be treated as read-only.
+     */
+    public List<CategoryTreeNodeDTO> hierarchy() {
+        return hierarchy;
+    }
+
+    private List<CategoryTreeNodeDTO> buildHierarchy() {
+        CategoryTreeNodeDTO[] nodes = new CategoryTreeNodeDTO[ids.length];
+        List<CategoryTreeNodeDTO> roots = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            nodes[i] = new CategoryTreeNodeDTO(ids[i], names[i], descriptions[i], new ArrayList<>());
+            if (parents[i] < 0) {
+                roots.add(nodes[i]);
+            } else {
+                nodes[parents[i]].getChildren().add(nodes[i]);
+            }
+        }
+        for (CategoryTreeNodeDTO node : nodes) {
+            node.setChildren(Collections.unmodifiableList(node.getChildren()));
+        }
+        return Collections.unmodifiableList(roots);
+    }
+
+    private CategoryDTO toDTO(int index) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(ids[index]);
+        dto.setName(names[index]);
+        dto.setDescription(descriptions[index]);
+        dto.setParentId(parents[index] < 0 ? null : ids[parents[index]]);
+        return dto;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.copilot.service;
+
+import com.example.copilot.event.CategoryChangedEvent;
+import com.example.copilot.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the current {@link CategoryTree}. Navigation reads (roots, children, breadcrumbs, descendants,
+ * the full hierarchy) are answered from memory; the tree is rebuilt with one query after each committed
+ * category write and swapped in atomically, so readers always see a complete tree.
+ *
+ * The category-lists and category-root-pages caches hold results derived from the tree, so they are
+ * evicted here, after the swap: evicting earlier would let a concurrent read re-cache the old tree.
+ */
+@Service
+@Slf4j
+public class CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+    private final CacheManager cacheManager;
+
+    private volatile CategoryTree tree;
+
+    public CategoryTreeService(CategoryRepository categoryRepository, CacheManager cacheManager) {
+        this.categoryRepository = categoryRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @return the current tree, loading it on first use
+     */
+    public CategoryTree current() {
+        CategoryTree current = tree;
+        if (current == null) {
+            synchronized (this) {
+                current = tree;
+                if (current == null) {
+                    current = load();
+                    tree = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reload();
+        evictDerivedLists(event);
+    }
+
+    /**
+     * Rebuilds the tree from the database. Serialized, so a reload that started before a later commit
+     * can never overwrite the tree built after it.
+     */
+    public synchronized void reload() {
+        tree = load();
+    }
+
+    private void evictDerivedLists(CategoryChangedEvent event) {
+        Cache lists = cacheManager.getCache("category-lists");
+        if (lists != null) {
+            if (event.deleted()) {
+                // The removed subtree's own subcategory lists go too; deletes are rare, so clear them all
+                lists.clear();
+            } else {
+                lists.evict("tree");
+                lists.evict("children_" + event.oldParentId());
+                lists.evict("children_" + event.newParentId());
+                if (event.oldParentId() == null || event.newParentId() == null) {
+                    lists.evict("roots");
+                }
+            }
+        }
+        Cache rootPages = cacheManager.getCache("category-root-pages");
+        if (rootPages != null && (event.oldParentId() == null || event.newParentId() == null)) {
+            rootPages.clear();
+        }
+    }
+
+    private CategoryTree load() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = categoryRepository.findTreeRows();
+        List<CategoryTree.Row> treeRows = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            treeRows.add(new CategoryTree.Row((Long) row[0], (String) row[1], (String) row[2], (Long) row[3]));
+        }
+        CategoryTree loaded = CategoryTree.of(treeRows);
+        if (loaded.size() < rows.size()) {
+            log.warn("{} categories are unreachable from any root and were left out of the category tree",
+                rows.size() - loaded.size());
+        }
+        log.debug("Loaded category tree with {} categories in {} ms", loaded.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+}
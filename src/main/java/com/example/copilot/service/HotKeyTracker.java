@@ -0,0 +1,49 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.SearchKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tracks the most requested product ids and search keys in bounded memory,
+ * so the hottest entries can be re-warmed after a deploy.
+ */
+@Component
+public class HotKeyTracker {
+
+    private final SpaceSavingTopK<Long> products;
+    private final SpaceSavingTopK<SearchKey> searches;
+
+    public HotKeyTracker(@Value("${cache.warmup.tracked-keys:1000}") int trackedKeys) {
+        this.products = new SpaceSavingTopK<>(trackedKeys);
+        this.searches = new SpaceSavingTopK<>(trackedKeys);
+    }
+
+    public void recordProductView(Long productId) {
+        if (productId != null) {
+            products.add(productId);
+        }
+    }
+
+    public void recordSearch(SearchKey searchKey) {
+        searches.add(searchKey);
+    }
+
+    public List<Long> topProductIds(int n) {
+        return products.top(n);
+    }
+
+    public List<SearchKey> topSearches(int n) {
+        return searches.top(n);
+    }
+
+    /**
+     * Restores a persisted hot list so rankings survive restarts.
+     */
+    public void seed(List<Long> productIds, List<SearchKey> searchKeys) {
+        products.seed(productIds);
+        searches.seed(searchKeys);
+    }
+}
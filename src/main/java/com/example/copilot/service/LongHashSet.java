@@ -0,0 +1,87 @@
+package com.example.copilot.service;
+
+/**
+ * Open-addressing set of primitive longs (linear probing), for bulk jobs that must test membership
+ * of millions of ids without boxing each one into a {@code Long} and a {@code HashMap} node.
+ * Zero is stored out of band so it can mark empty slots. Not thread-safe.
+ */
+final class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int size;
+    private boolean containsZero;
+
+    LongHashSet(int expectedSize) {
+        slots = new long[capacityFor(expectedSize)];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 16);
+    }
+
+    boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return false;
+            }
+            if (slots[i] == 0) {
+                slots[i] = value;
+                if (++size > slots.length * LOAD_FACTOR) {
+                    grow();
+                }
+                return true;
+            }
+        }
+    }
+
+    boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+            if (slots[i] == 0) {
+                return false;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length << 1];
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int i = index(value, mask);
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = value;
+            }
+        }
+    }
+
+    // Fibonacci hashing spreads sequential ids across the table
+    private static int index(long value, int mask) {
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
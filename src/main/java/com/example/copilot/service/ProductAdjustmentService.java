@@ -0,0 +1,175 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.BulkAdjustmentResultDTO;
+import com.example.copilot.dto.PriceAdjustmentRequestDTO;
+import com.example.copilot.dto.StockSnapshotRequestDTO;
+import com.example.copilot.event.CatalogChangedEvent;
+import com.example.copilot.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk price and stock adjustments for merchandising.
+ *
+ * Price changes run as a single set-based UPDATE over the filter; the matching ids are read first in
+ * the same transaction. Stock snapshots run as JDBC batch updates keyed by id. Both evict only the
+ * affected product-details entries, after commit. Search pages embed price and stock, so
+ * product-search is cleared; product-facets only for price changes.
+ */
+@Service
+@Slf4j
+public class ProductAdjustmentService {
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductAdjustmentService(ProductRepository productRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    CacheManager cacheManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${product.bulk.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Applies a percentage or absolute price change to every product matching the filter.
+     * Absolute decreases skip products whose price would drop to zero or below; percentage decreases
+     * never take a price below 0.01.
+     *
+     * @param request adjustment and filter
+     * @return number of products repriced
+     */
+    @Transactional
+    public BulkAdjustmentResultDTO adjustPrices(PriceAdjustmentRequestDTO request) {
+        String keyword = request.getKeyword() == null || request.getKeyword().isBlank() ? null : request.getKeyword();
+        if (request.getCategoryId() == null && request.getMinPrice() == null && request.getMaxPrice() == null && keyword == null) {
+            throw new IllegalArgumentException("At least one filter (categoryId, minPrice, maxPrice, keyword) is required");
+        }
+
+        boolean percentage = request.getMode() == PriceAdjustmentRequestDTO.Mode.PERCENTAGE;
+        if (percentage && request.getAmount() <= -100) {
+            throw new IllegalArgumentException("Percentage decrease must be greater than -100");
+        }
+        List<Long> affectedIds = productRepository.findIdsForAdjustment(request.getCategoryId(),
+            request.getMinPrice(), request.getMaxPrice(), keyword, percentage ? null : request.getAmount());
+
+        LocalDateTime now = LocalDateTime.now();
+        int affected;
+        if (percentage) {
+            affected = productRepository.scalePrices(1 + request.getAmount() / 100,
+                request.getCategoryId(), request.getMinPrice(), request.getMaxPrice(), keyword, now);
+        } else {
+            affected = productRepository.shiftPrices(request.getAmount(),
+                request.getCategoryId(), request.getMinPrice(), request.getMaxPrice(), keyword, now);
+        }
+
+        log.info("Price adjustment {} {} applied to {} products", request.getMode(), request.getAmount(), affected);
+        if (affected > 0) {
+            afterCommit(() -> {
+                evictDetails(affectedIds);
+                clear("product-search");
+                clear("product-facets");
+            });
+            eventPublisher.publishEvent(new CatalogChangedEvent("price adjustment"));
+        }
+        return new BulkAdjustmentResultDTO(affected, List.of());
+    }
+
+    /**
+     * Sets absolute stock levels from a warehouse snapshot, in batches keyed by product id.
+     * Unknown product ids are reported rather than failing the snapshot.
+     *
+     * @param request stock levels by product id; a repeated id keeps its last value
+     * @return number of products updated and the ids that matched no product
+     */
+    @Transactional
+    public BulkAdjustmentResultDTO applyStockSnapshot(StockSnapshotRequestDTO request) {
+        Map<Long, Integer> stockById = new LinkedHashMap<>();
+        for (StockSnapshotRequestDTO.Item item : request.getItems()) {
+            stockById.put(item.getProductId(), item.getStock());
+        }
+
+        List<Long> ids = List.copyOf(stockById.keySet());
+        List<Long> updatedIds = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            Set<Long> existing = new HashSet<>(productRepository.findExistingIds(chunk));
+            List<Object[]> args = new ArrayList<>(existing.size());
+            for (Long id : chunk) {
+                if (existing.contains(id)) {
+                    args.add(new Object[]{stockById.get(id), now, id});
+                    updatedIds.add(id);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            if (!args.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE products SET stock = ?, updated_at = ? WHERE id = ?", args);
+            }
+        }
+
+        log.info("Stock snapshot applied to {} products ({} unknown ids)", updatedIds.size(), missingIds.size());
+        if (!updatedIds.isEmpty()) {
+            afterCommit(() -> {
+                evictDetails(updatedIds);
+                clear("product-search");
+            });
+            eventPublisher.publishEvent(new CatalogChangedEvent("stock snapshot"));
+        }
+        return new BulkAdjustmentResultDTO(updatedIds.size(), missingIds);
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Evicting before commit would let a concurrent read re-cache the old values
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private void evictDetails(List<Long> productIds) {
+        Cache details = cacheManager.getCache("product-details");
+        if (details != null) {
+            productIds.forEach(details::evict);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
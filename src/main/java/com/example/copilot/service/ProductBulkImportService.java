@@ -0,0 +1,364 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.ProductImportRow;
+import com.example.copilot.event.CatalogChangedEvent;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streaming bulk upsert for catalog feeds.
+ *
+ * Rows are parsed one at a time (NDJSON lines or CSV records through Jackson's streaming parsers),
+ * validated against an in-memory category name/id map, and written with JDBC batch statements in
+ * batches of {@code product.bulk.batch-size}, one transaction per batch. Product caches are
+ * invalidated once per batch, and row errors are handed to the caller as they occur, so memory
+ * use is bounded by the batch size regardless of feed length.
+ */
+@Service
+@Slf4j
+public class ProductBulkImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    public record RowError(long line, String error) {
+    }
+
+    public record BulkImportResult(long rowsRead, long inserted, long updated, long failed, int batches, long elapsedMillis) {
+    }
+
+    private record PendingRow(long line, ProductImportRow row, Long categoryId) {
+    }
+
+    private static final String INSERT_SQL =
+        "INSERT INTO products (name, description, price, stock, category_id, average_rating, review_count, rating_sum, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, 0.0, 0, 0, ?, ?)";
+
+    // Optional columns a row leaves out keep their current value
+    private static final String UPDATE_SQL =
+        "UPDATE products SET name = ?, description = COALESCE(?, description), price = ?, stock = ?, " +
+        "category_id = COALESCE(?, category_id), updated_at = ? WHERE id = ?";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader ndjsonReader;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ProductBulkImportService(ProductRepository productRepository,
+                                    CategoryRepository categoryRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    CacheManager cacheManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObjectMapper objectMapper,
+                                    @Value("${product.bulk.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.ndjsonReader = objectMapper.readerFor(ProductImportRow.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a product feed.
+     *
+     * @param in     feed body; NDJSON (one object per line) or CSV with a header row
+     * @param format feed format
+     * @param errors receives one entry per rejected row, in feed order
+     * @return import totals
+     */
+    public BulkImportResult importProducts(InputStream in, Format format, Consumer<RowError> errors) throws IOException {
+        long start = System.currentTimeMillis();
+        Import run = new Import(loadCategories(), errors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+        if (run.inserted + run.updated > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent("bulk import"));
+        }
+        return new BulkImportResult(run.rowsRead, run.inserted, run.updated, run.failed, run.batches,
+            System.currentTimeMillis() - start);
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ProductImportRow row;
+            try {
+                row = ndjsonReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(lineNumber, row);
+        }
+    }
+
+    private void readCsv(Reader reader, Import run) throws IOException {
+        CsvMapper csvMapper = new CsvMapper();
+        try (MappingIterator<Map<String, String>> rows = csvMapper
+                .readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader)) {
+            while (rows.hasNextValue()) {
+                long lineNumber = rows.getCurrentLocation().getLineNr();
+                Map<String, String> fields = rows.nextValue();
+                fields.values().removeIf(value -> value == null || value.isEmpty());
+                ProductImportRow row;
+                try {
+                    row = objectMapper.convertValue(fields, ProductImportRow.class);
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, "Invalid value: " + e.getMessage());
+                    continue;
+                }
+                run.accept(lineNumber, row);
+            }
+        }
+    }
+
+    private Map<String, Long> loadCategories() {
+        Map<String, Long> byName = new HashMap<>();
+        for (Object[] row : categoryRepository.findAllIdsAndNames()) {
+            byName.putIfAbsent(normalize((String) row[1]), (Long) row[0]);
+        }
+        return byName;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * State of one import run: the current batch and running totals.
+     */
+    private final class Import {
+        private final Map<String, Long> categoriesByName;
+        private final Set<Long> categoryIds;
+        private final Consumer<RowError> errors;
+        private final List<PendingRow> batch = new ArrayList<>(batchSize);
+        private long rowsRead;
+        private long inserted;
+        private long updated;
+        private long failed;
+        private int batches;
+
+        private Import(Map<String, Long> categoriesByName, Consumer<RowError> errors) {
+            this.categoriesByName = categoriesByName;
+            this.categoryIds = new HashSet<>(categoriesByName.values());
+            this.errors = errors;
+        }
+
+        void reject(long line, String error) {
+            rowsRead++;
+            failed++;
+            errors.accept(new RowError(line, error));
+        }
+
+        void accept(long line, ProductImportRow row) {
+            String error = validate(row);
+            Long categoryId = null;
+            if (error == null) {
+                if (row.categoryId() != null) {
+                    categoryId = row.categoryId();
+                    if (!categoryIds.contains(categoryId)) {
+                        error = "Category not found with id: " + categoryId;
+                    }
+                } else if (row.category() != null) {
+                    categoryId = categoriesByName.get(normalize(row.category()));
+                    if (categoryId == null) {
+                        error = "Category not found with name: " + row.category();
+                    }
+                }
+            }
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            rowsRead++;
+            batch.add(new PendingRow(line, row, categoryId));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private String validate(ProductImportRow row) {
+            if (row == null) {
+                return "Empty row";
+            }
+            if (row.name() == null || row.name().isBlank()) {
+                return "Product name is required";
+            }
+            if (row.price() == null || row.price() <= 0) {
+                return "Price is required and must be positive";
+            }
+            if (row.stock() == null || row.stock() < 0) {
+                return "Stock quantity is required and cannot be negative";
+            }
+            return null;
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            batches++;
+            try {
+                writeBatch();
+            } catch (DataAccessException e) {
+                log.warn("Bulk import batch {} failed", batches, e);
+                String message = "Batch rejected by database: " + e.getMostSpecificCause().getMessage();
+                for (PendingRow pending : batch) {
+                    failed++;
+                    errors.accept(new RowError(pending.line(), message));
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+
+        private void writeBatch() {
+            // Resolve upsert targets: explicit ids must exist, rows without an id match by name
+            Set<Long> requestedIds = new HashSet<>();
+            Set<String> names = new HashSet<>();
+            for (PendingRow pending : batch) {
+                if (pending.row().id() != null) {
+                    requestedIds.add(pending.row().id());
+                } else {
+                    names.add(pending.row().name());
+                }
+            }
+            Set<Long> existingIds = requestedIds.isEmpty()
+                ? Set.of() : new HashSet<>(productRepository.findExistingIds(requestedIds));
+            Map<String, Long> idsByName = new HashMap<>();
+            Set<String> ambiguousNames = new HashSet<>();
+            if (!names.isEmpty()) {
+                for (Object[] row : productRepository.findIdsByNames(names)) {
+                    if (idsByName.putIfAbsent((String) row[1], (Long) row[0]) != null) {
+                        ambiguousNames.add((String) row[1]);
+                    }
+                }
+            }
+
+            // Later rows win when a batch repeats the same target
+            Map<Long, PendingRow> updates = new LinkedHashMap<>();
+            Map<String, PendingRow> inserts = new LinkedHashMap<>();
+            for (PendingRow pending : batch) {
+                ProductImportRow row = pending.row();
+                if (row.id() != null) {
+                    if (existingIds.contains(row.id())) {
+                        updates.put(row.id(), pending);
+                    } else {
+                        failed++;
+                        errors.accept(new RowError(pending.line(), "Product not found with id: " + row.id()));
+                    }
+                } else if (ambiguousNames.contains(row.name())) {
+                    failed++;
+                    errors.accept(new RowError(pending.line(), "Several products are named '" + row.name() + "'; give the product id"));
+                } else if (idsByName.containsKey(row.name())) {
+                    updates.put(idsByName.get(row.name()), pending);
+                } else {
+                    inserts.put(row.name(), pending);
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, List.copyOf(inserts.values()), inserts.size(), (ps, pending) -> {
+                        ProductImportRow row = pending.row();
+                        ps.setString(1, row.name());
+                        ps.setString(2, row.description());
+                        ps.setDouble(3, row.price());
+                        ps.setInt(4, row.stock());
+                        ps.setObject(5, pending.categoryId(), Types.BIGINT);
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    });
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_SQL, List.copyOf(updates.entrySet()), updates.size(), (ps, entry) -> {
+                        ProductImportRow row = entry.getValue().row();
+                        ps.setString(1, row.name());
+                        ps.setString(2, row.description());
+                        ps.setDouble(3, row.price());
+                        ps.setInt(4, row.stock());
+                        ps.setObject(5, entry.getValue().categoryId(), Types.BIGINT);
+                        ps.setTimestamp(6, now);
+                        ps.setLong(7, entry.getKey());
+                    });
+                }
+            });
+            inserted += inserts.size();
+            updated += updates.size();
+            invalidateCaches(updates.keySet(), !inserts.isEmpty() || !updates.isEmpty());
+        }
+    }
+
+    private void invalidateCaches(Set<Long> updatedIds, boolean anyWritten) {
+        if (!anyWritten) {
+            return;
+        }
+        Cache details = cacheManager.getCache("product-details");
+        if (details != null) {
+            updatedIds.forEach(details::evict);
+        }
+        for (String name : List.of("product-search", "product-facets")) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
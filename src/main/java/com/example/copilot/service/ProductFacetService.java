@@ -0,0 +1,93 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.ProductFacetsDTO;
+import com.example.copilot.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Computes search facets (category counts and price histogram) with one grouped query.
+ * Lives outside ProductServiceImpl so the separate "product-facets" cache is applied through the proxy.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductFacetService {
+
+    /** Each boundary adds a WHEN branch to the facet query, so requests may not supply more than this. */
+    static final int MAX_PRICE_BOUNDARIES = 20;
+
+    private final ProductRepository productRepository;
+
+    @Value("${product.search.facets.price-boundaries:50,100,500,1000}")
+    private List<Double> defaultPriceBoundaries;
+
+    /**
+     * Computes facet counts for the given search filters.
+     * Cached independently of result pages since the same facets apply to every page of a search.
+     *
+     * @param priceBoundaries ascending bucket boundaries; falls back to the configured defaults when empty
+     * @throws IllegalArgumentException if more than {@value #MAX_PRICE_BOUNDARIES} boundaries are given
+     *         or one of them is not a finite number
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "product-facets", key = "#keyword + '_' + #categoryId + '_' + #minPrice + '_' + #maxPrice + '_' + #priceBoundaries")
+    public ProductFacetsDTO computeFacets(String keyword, Long categoryId, Double minPrice, Double maxPrice, List<Double> priceBoundaries) {
+        List<Double> boundaries = normalizeBoundaries(priceBoundaries);
+        List<Object[]> rows = productRepository.countFacets(keyword, categoryId, minPrice, maxPrice, boundaries);
+        return aggregate(rows, boundaries);
+    }
+
+    private List<Double> normalizeBoundaries(List<Double> priceBoundaries) {
+        List<Double> boundaries = priceBoundaries == null || priceBoundaries.isEmpty()
+            ? defaultPriceBoundaries : priceBoundaries;
+        if (boundaries.size() > MAX_PRICE_BOUNDARIES) {
+            throw new IllegalArgumentException("At most " + MAX_PRICE_BOUNDARIES + " price buckets are allowed");
+        }
+        if (boundaries.stream().anyMatch(b -> b == null || !Double.isFinite(b))) {
+            throw new IllegalArgumentException("Price buckets must be finite numbers");
+        }
+        return boundaries.stream()
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
+    private ProductFacetsDTO aggregate(List<Object[]> rows, List<Double> boundaries) {
+        long[] bucketCounts = new long[boundaries.size() + 1];
+        Map<Long, Long> categoryCounts = new TreeMap<>();
+        long total = 0;
+
+        for (Object[] row : rows) {
+            Long categoryId = row[0] != null ? ((Number) row[0]).longValue() : null;
+            int bucket = ((Number) row[1]).intValue();
+            long count = ((Number) row[2]).longValue();
+
+            if (categoryId != null) {
+                categoryCounts.merge(categoryId, count, Long::sum);
+            }
+            bucketCounts[bucket] += count;
+            total += count;
+        }
+
+        List<ProductFacetsDTO.PriceBucket> priceBuckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            Double from = i == 0 ? 0.0 : boundaries.get(i - 1);
+            Double to = i < boundaries.size() ? boundaries.get(i) : null;
+            priceBuckets.add(new ProductFacetsDTO.PriceBucket(from, to, bucketCounts[i]));
+        }
+
+        ProductFacetsDTO facets = new ProductFacetsDTO();
+        facets.setCategoryCounts(categoryCounts);
+        facets.setPriceBuckets(priceBuckets);
+        facets.setTotalMatches(total);
+        return facets;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.copilot.service;
+
+import com.example.copilot.event.ReviewChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Applies committed review writes to product rating aggregates off the request path.
+ *
+ * Each review event adds its rating, count and star histogram delta to a per-product entry; every flush window the
+ * entries are drained and written as JDBC batches, one UPDATE per product however many reviews it
+ * received. Reviews no longer lock the product row that order placement updates for stock. A failed
+ * batch is merged back and retried on the next flush; deltas lost on shutdown or crash are repaired
+ * by {@link ProductRatingReconciler}, so the aggregates are eventually consistent.
+ */
+@Service
+@Slf4j
+public class ProductRatingAggregator {
+
+    // average_rating is assigned first: MySQL evaluates single-table SET clauses left to right
+    // against already-updated values, so it must still see the old sum and count
+    private static final String APPLY_SQL =
+        "UPDATE products SET " +
+        "average_rating = CASE WHEN COALESCE(review_count, 0) + ? > 0 " +
+        "THEN (COALESCE(rating_sum, 0) + ?) * 1.0 / (COALESCE(review_count, 0) + ?) ELSE 0.0 END, " +
+        "rating_sum = COALESCE(rating_sum, 0) + ?, " +
+        "review_count = COALESCE(review_count, 0) + ?, " +
+        "rating_1_count = rating_1_count + ?, rating_2_count = rating_2_count + ?, rating_3_count = rating_3_count + ?, " +
+        "rating_4_count = rating_4_count + ?, rating_5_count = rating_5_count + ? " +
+        "WHERE id = ?";
+
+    /**
+     * Net change for one product; {@code starDeltas[k]} is the change in reviews rated k+1.
+     */
+    record PendingDelta(long ratingDelta, int countDelta, int[] starDeltas, long queuedAtMillis) {
+
+        static PendingDelta of(ReviewChangedEvent event) {
+            int[] stars = new int[5];
+            if (event.previousRating() != null) {
+                stars[event.previousRating() - 1]--;
+            }
+            if (event.rating() != null) {
+                stars[event.rating() - 1]++;
+            }
+            return new PendingDelta(event.ratingDelta(), event.countDelta(), stars, System.currentTimeMillis());
+        }
+
+        PendingDelta plus(PendingDelta other) {
+            int[] stars = new int[5];
+            for (int k = 0; k < 5; k++) {
+                stars[k] = starDeltas[k] + other.starDeltas[k];
+            }
+            return new PendingDelta(ratingDelta + other.ratingDelta, countDelta + other.countDelta, stars,
+                Math.min(queuedAtMillis, other.queuedAtMillis));
+        }
+
+        boolean isEmpty() {
+            return ratingDelta == 0 && countDelta == 0 && Arrays.stream(starDeltas).allMatch(d -> d == 0);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+    private final ConcurrentMap<Long, PendingDelta> pending = new ConcurrentHashMap<>();
+    // Drained by a flush but not yet committed; still behind their reviews
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ProductRatingAggregator(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   CacheManager cacheManager,
+                                   @Value("${review.rating.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each batch commits on its own, also when a flush runs inside the reconciler's transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        pending.merge(event.productId(), PendingDelta.of(event), PendingDelta::plus);
+    }
+
+    /**
+     * @return number of products with deltas waiting for the next flush
+     */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * @return age in milliseconds of the oldest unapplied delta, or 0 when nothing is pending
+     */
+    public long getStalenessMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (PendingDelta delta : pending.values()) {
+            oldest = Math.min(oldest, delta.queuedAtMillis());
+        }
+        return oldest == Long.MAX_VALUE ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    /**
+     * Products whose aggregates are behind their committed reviews: queued deltas and batches a
+     * flush has drained but not yet committed.
+     */
+    public Set<Long> pendingProductIds() {
+        Set<Long> ids = new HashSet<>(pending.keySet());
+        ids.addAll(inFlight);
+        return ids;
+    }
+
+    /**
+     * Runs {@code work} holding the flush monitor, so no batch is drained or in flight meanwhile.
+     * Deltas from review commits keep queueing and show up in {@link #pendingProductIds()}.
+     */
+    public synchronized <T> T whileFlushPaused(Supplier<T> work) {
+        return work.get();
+    }
+
+    /**
+     * Drains every pending delta and applies it, one batch per transaction.
+     *
+     * @return number of products updated
+     */
+    @Scheduled(fixedDelayString = "${review.rating.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        List<Map.Entry<Long, PendingDelta>> drained = new ArrayList<>(pending.size());
+        for (Long productId : pending.keySet()) {
+            // Marked in flight before leaving the queue, so pendingProductIds() never misses it
+            inFlight.add(productId);
+            PendingDelta delta = pending.remove(productId);
+            if (delta != null && !delta.isEmpty()) {
+                drained.add(Map.entry(productId, delta));
+            } else {
+                inFlight.remove(productId);
+            }
+        }
+
+        int applied = 0;
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<Map.Entry<Long, PendingDelta>> batch = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(APPLY_SQL, args(batch)));
+                applied += batch.size();
+                evictDetails(batch);
+            } catch (RuntimeException e) {
+                // Keep the deltas (and their age) for the next window rather than dropping them
+                batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), PendingDelta::plus));
+                log.warn("Applying rating deltas for {} products failed; retrying next flush", batch.size(), e);
+            } finally {
+                batch.forEach(entry -> inFlight.remove(entry.getKey()));
+            }
+        }
+        return applied;
+    }
+
+    // Product details embed the rating aggregates and histogram
+    private void evictDetails(List<Map.Entry<Long, PendingDelta>> batch) {
+        Cache details = cacheManager.getCache("product-details");
+        if (details != null) {
+            batch.forEach(entry -> details.evict(entry.getKey()));
+        }
+    }
+
+    private List<Object[]> args(List<Map.Entry<Long, PendingDelta>> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Map.Entry<Long, PendingDelta> entry : batch) {
+            PendingDelta delta = entry.getValue();
+            int[] stars = delta.starDeltas();
+            args.add(new Object[]{delta.countDelta(), delta.ratingDelta(), delta.countDelta(),
+                delta.ratingDelta(), delta.countDelta(),
+                stars[0], stars[1], stars[2], stars[3], stars[4], entry.getKey()});
+        }
+        return args;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
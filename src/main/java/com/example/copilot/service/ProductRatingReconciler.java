@@ -0,0 +1,184 @@
+package com.example.copilot.service;
+
+import com.example.copilot.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repairs product rating aggregates that have drifted from the reviews table.
+ *
+ * Review writes move {@code rating_sum} and {@code review_count} by deltas through
+ * {@link ProductRatingAggregator}; deltas lost on a crash and writes that bypass
+ * {@code ReviewServiceImpl} (manual SQL, cascaded deletes) leave them stale until this job
+ * recomputes the affected products from their reviews. Products with deltas still queued or in
+ * flight are skipped, since recomputing them now would count those reviews twice once the deltas
+ * land. A review can also commit before a repair reads it and queue its delta only afterwards, so
+ * pending ids are checked again after the repair; products that picked up a delta meanwhile get
+ * their previous aggregates back and are left for the next run.
+ *
+ * Jobs that know which products they wrote reviews for call {@link #recompute(Collection)} instead
+ * of scanning every product for drift.
+ */
+@Service
+@Slf4j
+public class ProductRatingReconciler {
+
+    private static final String AGGREGATE_COLUMNS =
+        "average_rating, rating_sum, review_count, rating_1_count, rating_2_count, rating_3_count, rating_4_count, rating_5_count";
+    private static final String SELECT_AGGREGATES = "SELECT " + AGGREGATE_COLUMNS + " FROM products WHERE id = ?";
+    private static final String UPDATE_AGGREGATES =
+        "UPDATE products SET average_rating = ?, rating_sum = ?, review_count = ?, rating_1_count = ?, " +
+        "rating_2_count = ?, rating_3_count = ?, rating_4_count = ?, rating_5_count = ? WHERE id = ?";
+
+    // Aggregates of a chunk of products in one grouped pass; products without reviews come back as zeros
+    private static final String SELECT_REVIEW_AGGREGATES =
+        "SELECT p.id, COUNT(r.id), COALESCE(SUM(r.rating), 0), " +
+        "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), " +
+        "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) " +
+        "FROM products p LEFT JOIN reviews r ON r.product_id = p.id WHERE p.id IN (%s) GROUP BY p.id";
+
+    private static final int RECOMPUTE_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final ProductRatingAggregator aggregator;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductRatingReconciler(ProductRepository productRepository, ProductRatingAggregator aggregator,
+                                   JdbcTemplate jdbcTemplate, CacheManager cacheManager,
+                                   PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.aggregator = aggregator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return number of products whose aggregates were repaired
+     */
+    @Transactional
+    @Scheduled(initialDelayString = "${review.rating.reconcile-interval-ms:3600000}",
+               fixedDelayString = "${review.rating.reconcile-interval-ms:3600000}")
+    public int reconcile() {
+        // No flush can drain or commit a batch between the drift check and the repair
+        List<Long> repaired = aggregator.whileFlushPaused(this::repairDrift);
+        evictDetailsAfterCommit(repaired);
+        if (!repaired.isEmpty()) {
+            log.info("Product rating aggregates reconciled; {} products had drifted", repaired.size());
+        }
+        return repaired.size();
+    }
+
+    private List<Long> repairDrift() {
+        aggregator.flush();
+        Set<Long> pending = aggregator.pendingProductIds();
+        Map<Long, Object[]> previous = new LinkedHashMap<>();
+        for (Long productId : productRepository.findIdsWithRatingDrift()) {
+            if (!pending.contains(productId)) {
+                previous.put(productId, jdbcTemplate.queryForList(SELECT_AGGREGATES, productId).get(0).values().toArray());
+                productRepository.repairRatingAggregates(productId);
+            }
+        }
+        return restoreRaced(previous);
+    }
+
+    /**
+     * Recomputes the aggregates of the given products from their reviews, {@value #RECOMPUTE_CHUNK_SIZE}
+     * products per transaction: one grouped read of the chunk's reviews and one batched update.
+     * Products with deltas pending are skipped as in {@link #reconcile()}; the scheduled run repairs
+     * them once their deltas have landed.
+     *
+     * @return number of products recomputed
+     */
+    public int recompute(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        int recomputed = 0;
+        for (int from = 0; from < ids.size(); from += RECOMPUTE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RECOMPUTE_CHUNK_SIZE, ids.size()));
+            recomputed += transactionTemplate.execute(status -> {
+                List<Long> repaired = aggregator.whileFlushPaused(() -> recomputeChunk(chunk));
+                evictDetailsAfterCommit(repaired);
+                return repaired.size();
+            });
+        }
+        return recomputed;
+    }
+
+    private List<Long> recomputeChunk(List<Long> chunk) {
+        aggregator.flush();
+        Set<Long> pending = aggregator.pendingProductIds();
+        Object[] ids = chunk.stream().filter(id -> !pending.contains(id)).toArray();
+        if (ids.length == 0) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.length, "?"));
+        Map<Long, Object[]> previous = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, " + AGGREGATE_COLUMNS + " FROM products WHERE id IN (" + placeholders + ")", rs -> {
+            Object[] values = new Object[8];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 2);
+            }
+            previous.put(rs.getLong(1), values);
+        }, ids);
+        List<Object[]> updates = jdbcTemplate.query(SELECT_REVIEW_AGGREGATES.formatted(placeholders), (rs, row) -> {
+            long count = rs.getLong(2);
+            long sum = rs.getLong(3);
+            return new Object[]{count > 0 ? (double) sum / count : 0.0, sum, count,
+                rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7), rs.getInt(8), rs.getLong(1)};
+        }, ids);
+        jdbcTemplate.batchUpdate(UPDATE_AGGREGATES, updates);
+        return restoreRaced(previous);
+    }
+
+    // The repair may already count the review behind a delta queued since; applying both would count it twice
+    private List<Long> restoreRaced(Map<Long, Object[]> previous) {
+        Set<Long> raced = aggregator.pendingProductIds();
+        raced.retainAll(previous.keySet());
+        for (Long productId : raced) {
+            Object[] args = Arrays.copyOf(previous.remove(productId), 9);
+            args[8] = productId;
+            jdbcTemplate.update(UPDATE_AGGREGATES, args);
+        }
+        return new ArrayList<>(previous.keySet());
+    }
+
+    // Product details embed the rating aggregates; evicting before commit would let a read re-cache old values
+    private void evictDetailsAfterCommit(List<Long> productIds) {
+        Cache details = cacheManager.getCache("product-details");
+        if (details == null || productIds.isEmpty()) {
+            return;
+        }
+        Runnable eviction = () -> productIds.forEach(details::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.copilot.service;
 
+import com.example.copilot.dto.CursorSlice;
+import com.example.copilot.dto.FacetedPage;
 import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.dto.ProductSortOrder;
+import com.example.copilot.dto.RatingHistogramDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 public interface ProductService {
     ProductDTO create(ProductDTO productDTO);
@@ -11,7 +18,13 @@ public interface ProductService {
     ProductDTO findById(Long id);
     Page<ProductDTO> findAll(Pageable pageable);
     Page<ProductDTO> searchProducts(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable);
+    Page<ProductDTO> searchProductsInCategoryTree(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable);
+    Slice<ProductDTO> searchProductsSlice(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable);
+    FacetedPage<ProductDTO> searchProductsWithFacets(String keyword, Long categoryId, Double minPrice, Double maxPrice, List<Double> priceBoundaries, Pageable pageable);
+    CursorSlice<ProductDTO> searchProductsKeyset(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                                 ProductSortOrder sort, String cursor, int size);
     Page<ProductDTO> findByCategoryId(Long categoryId, Pageable pageable);
     Page<ProductDTO> findByPriceRange(Double minPrice, Double maxPrice, Pageable pageable);
     Page<ProductDTO> findLowStockProducts(Integer threshold, Pageable pageable);
+    List<RatingHistogramDTO> getRatingHistograms(List<Long> productIds);
 }
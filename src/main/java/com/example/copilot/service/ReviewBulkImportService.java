@@ -0,0 +1,334 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.ReviewImportRow;
+import com.example.copilot.entity.ReviewImportCheckpoint;
+import com.example.copilot.repository.ReviewImportCheckpointRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Streaming bulk import for migrating historical reviews.
+ *
+ * User ids, product ids and existing (user, product) pairs are loaded once into primitive hash
+ * sets; each row is then validated in memory instead of with per-review lookups, and valid rows are
+ * inserted with JDBC batches of {@code review.bulk.batch-size}, one transaction per batch. The
+ * purchase check of {@code ReviewServiceImpl} is not applied: legacy reviews predate order history.
+ *
+ * Each batch transaction also advances the job's {@link ReviewImportCheckpoint}, so re-running a
+ * failed job with the same id skips every row up to the last committed batch, and records the
+ * products the batch wrote reviews for. Rating aggregates are not touched per review; once the feed
+ * is exhausted, {@link ProductRatingReconciler#recompute} recomputes the recorded products once each,
+ * including those imported by an earlier, interrupted run of the job. Review search indexes and
+ * cached review eligibilities are dropped and rebuilt on demand.
+ */
+@Service
+@Slf4j
+public class ReviewBulkImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    public record RowError(long line, String error) {
+    }
+
+    public record BulkImportResult(String jobId, long resumedAfterLine, long rowsRead, long inserted, long failed,
+                                   int batches, int productsRecomputed, long elapsedMillis) {
+    }
+
+    private record PendingRow(long line, ReviewImportRow row, long pair) {
+    }
+
+    private static final String INSERT_SQL =
+        "INSERT INTO reviews (content, rating, product_id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+        "UPDATE review_import_checkpoints SET last_line = ?, rows_imported = rows_imported + ?, updated_at = ? WHERE job_id = ?";
+
+    private static final String INSERT_CHECKPOINT_SQL =
+        "INSERT INTO review_import_checkpoints (job_id, last_line, rows_imported, updated_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_CHECKPOINT_PRODUCT_SQL =
+        "INSERT INTO review_import_checkpoint_products (job_id, product_id) VALUES (?, ?)";
+
+    private static final String SELECT_CHECKPOINT_PRODUCTS_SQL =
+        "SELECT product_id FROM review_import_checkpoint_products WHERE job_id = ?";
+
+    private static final long MAX_PAIR_ID = 0xFFFFFFFFL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReviewImportCheckpointRepository checkpointRepository;
+    private final ProductRatingReconciler ratingReconciler;
+    private final ReviewSearchService reviewSearchService;
+    private final ReviewEligibilityCache eligibilityCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader ndjsonReader;
+    private final int batchSize;
+
+    public ReviewBulkImportService(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ReviewImportCheckpointRepository checkpointRepository,
+                                   ProductRatingReconciler ratingReconciler,
+                                   ReviewSearchService reviewSearchService,
+                                   ReviewEligibilityCache eligibilityCache,
+                                   ObjectMapper objectMapper,
+                                   @Value("${review.bulk.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointRepository = checkpointRepository;
+        this.ratingReconciler = ratingReconciler;
+        this.reviewSearchService = reviewSearchService;
+        this.eligibilityCache = eligibilityCache;
+        this.objectMapper = objectMapper;
+        this.ndjsonReader = objectMapper.readerFor(ReviewImportRow.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a review feed, resuming after the checkpoint of {@code jobId} if one exists.
+     *
+     * @param jobId  stable id of the import job; pass the same id to resume after a failure
+     * @param in     feed body; NDJSON (one object per line) or CSV with a header row
+     * @param format feed format
+     * @param errors receives one entry per rejected row, in feed order
+     * @return import totals for this run
+     */
+    public BulkImportResult importReviews(String jobId, InputStream in, Format format, Consumer<RowError> errors) throws IOException {
+        if (jobId == null || jobId.isBlank() || jobId.length() > 100) {
+            throw new IllegalArgumentException("jobId is required and must be at most 100 characters");
+        }
+        long start = System.currentTimeMillis();
+        long resumeAfter = checkpointRepository.findById(jobId).map(ReviewImportCheckpoint::getLastLine).orElse(0L);
+        Import run = new Import(jobId, resumeAfter, errors);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.flush();
+
+        int recomputed = run.inserted > 0 || resumeAfter > 0
+            ? ratingReconciler.recompute(jdbcTemplate.queryForList(SELECT_CHECKPOINT_PRODUCTS_SQL, Long.class, jobId))
+            : 0;
+        if (run.inserted > 0) {
+            reviewSearchService.invalidateAll();
+            eligibilityCache.evictAll();
+        }
+        log.info("Review import {}: {} inserted, {} failed in {} batches; {} products recomputed",
+            jobId, run.inserted, run.failed, run.batches, recomputed);
+        return new BulkImportResult(jobId, resumeAfter, run.rowsRead, run.inserted, run.failed, run.batches, recomputed,
+            System.currentTimeMillis() - start);
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber <= run.resumeAfter || line.isBlank()) {
+                continue;
+            }
+            ReviewImportRow row;
+            try {
+                row = ndjsonReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            run.accept(lineNumber, row);
+        }
+    }
+
+    private void readCsv(Reader reader, Import run) throws IOException {
+        CsvMapper csvMapper = new CsvMapper();
+        try (MappingIterator<Map<String, String>> rows = csvMapper
+                .readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader)) {
+            while (rows.hasNextValue()) {
+                long lineNumber = rows.getCurrentLocation().getLineNr();
+                Map<String, String> fields = rows.nextValue();
+                if (lineNumber <= run.resumeAfter) {
+                    continue;
+                }
+                fields.values().removeIf(value -> value == null || value.isEmpty());
+                ReviewImportRow row;
+                try {
+                    row = objectMapper.convertValue(fields, ReviewImportRow.class);
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, "Invalid value: " + e.getMessage());
+                    continue;
+                }
+                run.accept(lineNumber, row);
+            }
+        }
+    }
+
+    private LongHashSet loadIds(String sql, Object... args) {
+        LongHashSet ids = new LongHashSet(1024);
+        jdbcTemplate.query(sql, rs -> {
+            ids.add(rs.getLong(1));
+        }, args);
+        return ids;
+    }
+
+    private LongHashSet loadExistingPairs() {
+        LongHashSet pairs = new LongHashSet(1024);
+        jdbcTemplate.query("SELECT user_id, product_id FROM reviews", rs -> {
+            pairs.add(pair(rs.getLong(1), rs.getLong(2)));
+        });
+        return pairs;
+    }
+
+    // Packs a (user, product) pair into one long; both ids are checked to fit in 32 bits
+    private static long pair(long userId, long productId) {
+        return (userId << 32) | productId;
+    }
+
+    /**
+     * State of one import run: the lookup sets, the current batch and running totals.
+     */
+    private final class Import {
+        private final String jobId;
+        private final long resumeAfter;
+        private final Consumer<RowError> errors;
+        private final LongHashSet userIds = loadIds("SELECT id FROM users");
+        private final LongHashSet productIds = loadIds("SELECT id FROM products");
+        private final LongHashSet reviewedPairs = loadExistingPairs();
+        private final LongHashSet touchedProducts;
+        private final Set<Long> batchPairs = new HashSet<>();
+        private final List<PendingRow> batch = new ArrayList<>(batchSize);
+        private long rowsRead;
+        private long inserted;
+        private long failed;
+        private int batches;
+
+        private Import(String jobId, long resumeAfter, Consumer<RowError> errors) {
+            this.jobId = jobId;
+            this.resumeAfter = resumeAfter;
+            this.errors = errors;
+            this.touchedProducts = loadIds(SELECT_CHECKPOINT_PRODUCTS_SQL, jobId);
+        }
+
+        void reject(long line, String error) {
+            rowsRead++;
+            failed++;
+            errors.accept(new RowError(line, error));
+        }
+
+        void accept(long line, ReviewImportRow row) {
+            String error = validate(row);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            long pair = pair(row.userId(), row.productId());
+            if (reviewedPairs.contains(pair) || !batchPairs.add(pair)) {
+                reject(line, "User " + row.userId() + " has already reviewed product " + row.productId());
+                return;
+            }
+            rowsRead++;
+            batch.add(new PendingRow(line, row, pair));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private String validate(ReviewImportRow row) {
+            if (row == null) {
+                return "Empty row";
+            }
+            if (row.userId() == null || row.userId() <= 0 || row.userId() > MAX_PAIR_ID || !userIds.contains(row.userId())) {
+                return "User not found with id: " + (row.userId() != null ? row.userId() : "(missing)");
+            }
+            if (row.productId() == null || row.productId() <= 0 || row.productId() > MAX_PAIR_ID || !productIds.contains(row.productId())) {
+                return "Product not found with id: " + (row.productId() != null ? row.productId() : "(missing)");
+            }
+            if (row.rating() == null || row.rating() < 1 || row.rating() > 5) {
+                return "Rating must be between 1 and 5";
+            }
+            if (row.content() == null || row.content().isBlank() || row.content().length() > 1000) {
+                return "Review content is required and must be at most 1000 characters";
+            }
+            return null;
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            batches++;
+            try {
+                List<Long> newProducts = batch.stream().map(pending -> pending.row().productId())
+                    .filter(productId -> !touchedProducts.contains(productId)).distinct().toList();
+                writeBatch(newProducts);
+                batch.forEach(pending -> reviewedPairs.add(pending.pair()));
+                newProducts.forEach(touchedProducts::add);
+                inserted += batch.size();
+            } catch (DataAccessException e) {
+                log.warn("Review import {} batch {} failed", jobId, batches, e);
+                String message = "Batch rejected by database: " + e.getMostSpecificCause().getMessage();
+                for (PendingRow pending : batch) {
+                    failed++;
+                    errors.accept(new RowError(pending.line(), message));
+                }
+            } finally {
+                batch.clear();
+                batchPairs.clear();
+            }
+        }
+
+        private void writeBatch(List<Long> newProducts) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            long lastLine = batch.get(batch.size() - 1).line();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+                    ReviewImportRow row = pending.row();
+                    Timestamp createdAt = row.createdAt() != null ? Timestamp.valueOf(row.createdAt()) : now;
+                    ps.setString(1, row.content());
+                    ps.setInt(2, row.rating());
+                    ps.setLong(3, row.productId());
+                    ps.setLong(4, row.userId());
+                    ps.setTimestamp(5, createdAt);
+                    ps.setTimestamp(6, createdAt);
+                });
+                if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, lastLine, batch.size(), now, jobId) == 0) {
+                    jdbcTemplate.update(INSERT_CHECKPOINT_SQL, jobId, lastLine, batch.size(), now);
+                }
+                if (!newProducts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_CHECKPOINT_PRODUCT_SQL, newProducts, newProducts.size(),
+                        (ps, productId) -> {
+                            ps.setString(1, jobId);
+                            ps.setLong(2, productId);
+                        });
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.copilot.service;
+
+import com.example.copilot.entity.OrderStatus;
+import com.example.copilot.event.ReviewChangedEvent;
+import com.example.copilot.repository.OrderRepository;
+import com.example.copilot.repository.ReviewRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-user cache of the product ids a user has received in a delivered order and has already
+ * reviewed, so "can this user review this product" is answered without the two lookups per check.
+ *
+ * One entry is loaded per user with two queries and kept for {@code review.eligibility.ttl-seconds},
+ * at most {@code review.eligibility.max-users} users at a time. A user's entry is dropped after a
+ * committed review write and by {@link #evict(Long)}, which must be called when an order of the user
+ * is delivered. Eviction waits for a load of the same user in flight, so a load that read the tables
+ * before the commit is never left behind.
+ *
+ * Only the read-only eligibility checks use this cache; review writes still check the database.
+ */
+@Service
+public class ReviewEligibilityCache {
+
+    private record Eligibility(Set<Long> purchased, Set<Long> reviewed) {
+
+        boolean canReview(Long productId) {
+            return purchased.contains(productId) && !reviewed.contains(productId);
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final ReviewRepository reviewRepository;
+    private final Cache<Long, Eligibility> eligibilities;
+
+    public ReviewEligibilityCache(OrderRepository orderRepository,
+                                  ReviewRepository reviewRepository,
+                                  @Value("${review.eligibility.max-users:10000}") long maxUsers,
+                                  @Value("${review.eligibility.ttl-seconds:300}") long ttlSeconds) {
+        this.orderRepository = orderRepository;
+        this.reviewRepository = reviewRepository;
+        this.eligibilities = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    public boolean canReview(Long userId, Long productId) {
+        return eligibility(userId).canReview(productId);
+    }
+
+    /**
+     * Eligibility for each product, in the order given; duplicates are answered once.
+     */
+    public Map<Long, Boolean> canReview(Long userId, Collection<Long> productIds) {
+        Eligibility eligibility = eligibility(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            result.put(productId, eligibility.canReview(productId));
+        }
+        return result;
+    }
+
+    public void evict(Long userId) {
+        eligibilities.invalidate(userId);
+    }
+
+    public void evictAll() {
+        eligibilities.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.userId() != null) {
+            evict(event.userId());
+        }
+    }
+
+    private Eligibility eligibility(Long userId) {
+        return eligibilities.get(userId, id -> new Eligibility(
+            Set.copyOf(orderRepository.findProductIdsByUserIdAndStatus(id, OrderStatus.DELIVERED)),
+            Set.copyOf(reviewRepository.findProductIdsByUserId(id))));
+    }
+}
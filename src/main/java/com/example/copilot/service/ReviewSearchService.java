@@ -0,0 +1,169 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.ReviewDTO;
+import com.example.copilot.event.ReviewChangedEvent;
+import com.example.copilot.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over a product's reviews, backed by one in-process {@link ReviewTextIndex} per
+ * product.
+ *
+ * A product's index is built from the reviews table on its first search and then kept current by
+ * committed review writes; at most {@code review.search.max-products} indexes are held, the least
+ * recently searched being dropped first. The index only yields ranked review ids: the requested page
+ * is hydrated with one projection query. Writes that bypass {@code ReviewServiceImpl} (bulk imports)
+ * must call {@link #invalidateAll()}.
+ */
+@Service
+@Slf4j
+public class ReviewSearchService {
+
+    private static final String LOAD_SQL = "SELECT id, content FROM reviews WHERE product_id = ?";
+
+    private static final class Partition {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final ReviewTextIndex index = new ReviewTextIndex();
+        volatile long lastSearched = System.nanoTime();
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReviewRepository reviewRepository;
+    private final int maxProducts;
+    private final ConcurrentMap<Long, Partition> partitions = new ConcurrentHashMap<>();
+
+    public ReviewSearchService(JdbcTemplate jdbcTemplate,
+                               ReviewRepository reviewRepository,
+                               @Value("${review.search.max-products:1000}") int maxProducts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reviewRepository = reviewRepository;
+        this.maxProducts = maxProducts;
+    }
+
+    /**
+     * Reviews of the product matching any term of the query, best BM25 score first.
+     *
+     * @throws IllegalArgumentException if the query has no searchable terms
+     */
+    public Page<ReviewDTO> search(Long productId, String query, Pageable pageable) {
+        List<String> terms = ReviewTextIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        Partition partition = partition(productId);
+        ReviewTextIndex.Hits hits;
+        partition.lock.readLock().lock();
+        try {
+            hits = partition.index.search(terms, (int) pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            partition.lock.readLock().unlock();
+        }
+        if (hits.reviewIds().length == 0) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+
+        // Restore the ranking order; a review deleted since the search is simply left out
+        Map<Long, ReviewDTO> byId = reviewRepository.findDTOsByIdIn(Arrays.stream(hits.reviewIds()).boxed().toList())
+            .stream().collect(Collectors.toMap(ReviewDTO::getId, Function.identity()));
+        List<ReviewDTO> page = new ArrayList<>(hits.reviewIds().length);
+        for (long reviewId : hits.reviewIds()) {
+            ReviewDTO review = byId.get(reviewId);
+            if (review != null) {
+                page.add(review);
+            }
+        }
+        return new PageImpl<>(page, pageable, hits.total());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        Partition partition = partitions.get(event.productId());
+        if (partition == null || event.reviewId() == null) {
+            return; // the first search loads the product with this write
+        }
+        partition.lock.writeLock().lock();
+        try {
+            if (event.deleted()) {
+                partition.index.remove(event.reviewId());
+            } else {
+                partition.index.upsert(event.reviewId(), event.content());
+            }
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every index; each product is reloaded on its next search.
+     */
+    public void invalidateAll() {
+        partitions.clear();
+    }
+
+    int indexedProducts() {
+        return partitions.size();
+    }
+
+    /**
+     * Returns the product's index, loading it first if needed. The loading thread holds the write
+     * lock from before the index is published until the load finishes, so searches wait for a
+     * complete index and review events committed meanwhile are applied on top of it. Events for
+     * writes the load already saw are applied again, which is harmless since upserts replace.
+     */
+    private Partition partition(Long productId) {
+        Partition partition = partitions.get(productId);
+        if (partition == null) {
+            Partition created = new Partition();
+            created.lock.writeLock().lock();
+            try {
+                partition = partitions.putIfAbsent(productId, created);
+                if (partition == null) {
+                    partition = created;
+                    load(productId, created);
+                    evictLeastRecentlySearched();
+                }
+            } catch (RuntimeException e) {
+                partitions.remove(productId, created);
+                throw e;
+            } finally {
+                created.lock.writeLock().unlock();
+            }
+        }
+        partition.lastSearched = System.nanoTime();
+        return partition;
+    }
+
+    private void load(Long productId, Partition partition) {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            partition.index.upsert(rs.getLong(1), rs.getString(2));
+        }, productId);
+        log.debug("Indexed {} reviews of product {} in {} ms",
+            partition.index.size(), productId, System.currentTimeMillis() - start);
+    }
+
+    private void evictLeastRecentlySearched() {
+        while (partitions.size() > maxProducts) {
+            partitions.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().lastSearched, b.getValue().lastSearched))
+                .ifPresent(oldest -> partitions.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.copilot.service;
 
 import com.example.copilot.dto.CreateReviewRequestDTO;
+import com.example.copilot.dto.CursorSlice;
 import com.example.copilot.dto.ReviewDTO;
 import com.example.copilot.dto.UpdateReviewRequestDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ReviewService {
     // Main method as per your plan
@@ -20,5 +23,15 @@ public interface ReviewService {
     List<ReviewDTO> getReviewsByProductId(Long productId);
     List<ReviewDTO> getReviewsByUserId(Long userId);
     Page<ReviewDTO> getReviewsByProductId(Long productId, Pageable pageable);
+
+    // Keyset feeds, newest first; pass the previous slice's nextCursor, or null for the first slice
+    CursorSlice<ReviewDTO> getProductReviewFeed(Long productId, String cursor, int size);
+    CursorSlice<ReviewDTO> getUserReviewFeed(Long userId, String cursor, int size);
+
+    // Streams every review of a product, newest first, to the sink in bounded batches; returns the count
+    long exportProductReviews(Long productId, Consumer<ReviewDTO> sink);
     boolean canUserReviewProduct(Long userId, Long productId);
+
+    // Eligibility for a whole listing page, keyed by product id in request order
+    Map<Long, Boolean> canUserReviewProducts(Long userId, List<Long> productIds);
 }
@@ -0,0 +1,300 @@
+package com.example.copilot.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over the review texts of one product, ranked with Okapi BM25.
+ *
+ * Documents live in dense slots with their review id and token length kept in parallel arrays;
+ * each term maps to a postings list of (slot, term frequency) pairs in primitive arrays. Removing or
+ * replacing a review tombstones its slot; postings are rewritten once tombstones outnumber live
+ * reviews. Scoring walks only the postings of the query terms into a {@code float[]} accumulator,
+ * and the requested page is cut with a bounded heap, so a query costs about the number of postings
+ * it touches rather than the number of reviews.
+ *
+ * Not thread-safe; {@link ReviewSearchService} guards each product's index with a read-write lock.
+ */
+final class ReviewTextIndex {
+
+    /**
+     * One page of matching review ids, best first, and the total number of matching reviews.
+     */
+    record Hits(long[] reviewIds, int total) {
+    }
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_COMPACT_TOMBSTONES = 1024;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "i", "in", "is", "it", "its",
+        "my", "of", "on", "or", "so", "that", "the", "this", "to", "was", "were", "with");
+
+    private static final class Postings {
+        final String term;
+        int[] slots = new int[4];
+        int[] freqs = new int[4];
+        int size;
+        int live;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int slot, int freq) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            slots[size] = slot;
+            freqs[size] = freq;
+            size++;
+            live++;
+        }
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsByReviewId = new HashMap<>();
+    private long[] reviewIds = new long[16];
+    private int[] lengths = new int[16];      // -1 marks a tombstoned slot
+    private String[][] terms = new String[16][];
+    private int slotCount;
+    private int live;
+    private long totalLength;
+
+    /**
+     * Lower-cases the text and splits it into letter/digit runs, dropping stop words and single
+     * characters. Queries and reviews are tokenized the same way; there is no stemming.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    int size() {
+        return live;
+    }
+
+    /**
+     * Adds the review, replacing any previous text indexed under the same id.
+     */
+    void upsert(long reviewId, String content) {
+        remove(reviewId);
+        List<String> tokens = tokenize(content);
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+
+        int slot = slotCount++;
+        if (slot == reviewIds.length) {
+            int capacity = slot * 2;
+            reviewIds = Arrays.copyOf(reviewIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+        }
+        String[] docTerms = new String[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings list = postings.computeIfAbsent(entry.getKey(), Postings::new);
+            list.add(slot, entry.getValue());
+            docTerms[i++] = list.term;
+        }
+        reviewIds[slot] = reviewId;
+        lengths[slot] = tokens.size();
+        terms[slot] = docTerms;
+        slotsByReviewId.put(reviewId, slot);
+        live++;
+        totalLength += tokens.size();
+    }
+
+    /**
+     * @return false if the review was not indexed
+     */
+    boolean remove(long reviewId) {
+        Integer slot = slotsByReviewId.remove(reviewId);
+        if (slot == null) {
+            return false;
+        }
+        for (String term : terms[slot]) {
+            postings.get(term).live--;
+        }
+        totalLength -= lengths[slot];
+        lengths[slot] = -1;
+        terms[slot] = null;
+        live--;
+        int tombstones = slotCount - live;
+        if (tombstones >= MIN_COMPACT_TOMBSTONES && tombstones > live) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Ranks the reviews containing any of the query terms by BM25, breaking ties newest (highest id)
+     * first, and returns the {@code limit} hits after the first {@code offset}.
+     */
+    Hits search(List<String> queryTerms, int offset, int limit) {
+        if (live == 0) {
+            return new Hits(new long[0], 0);
+        }
+        float averageLength = Math.max(1f, (float) totalLength / live);
+        float[] scores = new float[slotCount];
+        int[] matched = new int[Math.min(slotCount, 1024)];
+        int total = 0;
+        for (String term : new LinkedHashSet<>(queryTerms)) {
+            Postings list = postings.get(term);
+            if (list == null || list.live == 0) {
+                continue;
+            }
+            float idf = (float) Math.log(1 + (live - list.live + 0.5) / (list.live + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.slots[i];
+                int length = lengths[slot];
+                if (length < 0) {
+                    continue;
+                }
+                float tf = list.freqs[i];
+                if (scores[slot] == 0f) {
+                    if (total == matched.length) {
+                        matched = Arrays.copyOf(matched, Math.min(slotCount, total * 2));
+                    }
+                    matched[total++] = slot;
+                }
+                scores[slot] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+            }
+        }
+        if (offset >= total) {
+            return new Hits(new long[0], total);
+        }
+        int[] top = topK(matched, total, Math.min(total, offset + limit), scores);
+        long[] page = new long[Math.min(limit, top.length - offset)];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = reviewIds[top[offset + i]];
+        }
+        return new Hits(page, total);
+    }
+
+    private boolean better(int a, int b, float[] scores) {
+        return scores[a] != scores[b] ? scores[a] > scores[b] : reviewIds[a] > reviewIds[b];
+    }
+
+    /**
+     * Selects the best k of the matched slots with a min-heap of size k, then orders them best first.
+     */
+    private int[] topK(int[] matched, int total, int k, float[] scores) {
+        int[] heap = new int[k];
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            int slot = matched[i];
+            if (size < k) {
+                heap[size] = slot;
+                siftUp(heap, size++, scores);
+            } else if (better(slot, heap[0], scores)) {
+                heap[0] = slot;
+                siftDown(heap, size, scores);
+            }
+        }
+        int[] ordered = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ordered[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return ordered;
+    }
+
+    private void siftUp(int[] heap, int i, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], scores)) {
+                break;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && better(heap[worst], heap[left], scores)) {
+                worst = left;
+            }
+            if (right < size && better(heap[worst], heap[right], scores)) {
+                worst = right;
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    /**
+     * Renumbers live slots densely and drops tombstoned postings and terms with no live reviews.
+     */
+    private void compact() {
+        int[] remap = new int[slotCount];
+        int next = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (lengths[slot] < 0) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = next;
+            reviewIds[next] = reviewIds[slot];
+            lengths[next] = lengths[slot];
+            terms[next] = terms[slot];
+            slotsByReviewId.put(reviewIds[next], next);
+            next++;
+        }
+        Arrays.fill(terms, next, slotCount, null);
+        slotCount = next;
+        postings.values().removeIf(list -> list.live == 0);
+        for (Postings list : postings.values()) {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                int slot = remap[list.slots[i]];
+                if (slot >= 0) {
+                    list.slots[kept] = slot;
+                    list.freqs[kept] = list.freqs[i];
+                    kept++;
+                }
+            }
+            list.size = kept;
+        }
+    }
+}
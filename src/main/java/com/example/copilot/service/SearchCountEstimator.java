@@ -0,0 +1,151 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.SearchCountDTO;
+import com.example.copilot.event.CatalogChangedEvent;
+import com.example.copilot.event.ProductChangedEvent;
+import com.example.copilot.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provides total counts for product searches without putting a COUNT query on the request path.
+ * Exact counts are computed asynchronously (one computation per filter at a time) and cached for a
+ * short period; until then unfiltered searches fall back to an approximate table-statistics estimate.
+ * Product and catalog changes drop every cached count, and a count started before a change is not
+ * cached, so a cached count is exact as of the last committed change. Stock-only changes are
+ * ignored: no search filter depends on stock.
+ */
+@Service
+@Slf4j
+public class SearchCountEstimator {
+
+    private static final int COUNT_THREADS = 2;
+    private static final long COUNT_TTL_MINUTES = 5;
+
+    private final ProductRepository productRepository;
+    private final Cache<String, Long> counts;
+    private final Map<String, CompletableFuture<Long>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a count that started under an older generation is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService executor;
+
+    public SearchCountEstimator(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(COUNT_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+        this.executor = Executors.newFixedThreadPool(COUNT_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "search-count");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the best available count for the search filters without blocking on the database
+     * (except for the cheap table-statistics lookup).
+     */
+    public SearchCountDTO estimate(String keyword, Long categoryId, Double minPrice, Double maxPrice) {
+        String key = keyword + "_" + categoryId + "_" + minPrice + "_" + maxPrice;
+
+        Long cached = counts.getIfPresent(key);
+        if (cached != null) {
+            return new SearchCountDTO(cached, false, SearchCountDTO.Source.CACHED);
+        }
+
+        computeAsync(key, keyword, categoryId, minPrice, maxPrice);
+
+        if (keyword == null && categoryId == null && minPrice == null && maxPrice == null) {
+            Long estimate = estimateFromTableStatistics();
+            if (estimate != null) {
+                return new SearchCountDTO(estimate, true, SearchCountDTO.Source.TABLE_STATISTICS);
+            }
+        }
+        return new SearchCountDTO(null, true, SearchCountDTO.Source.PENDING);
+    }
+
+    /**
+     * Starts the exact count for a filter unless one is already running for it.
+     * The returned future completes after the count has been cached.
+     */
+    CompletableFuture<Long> computeAsync(String key, String keyword, Long categoryId, Double minPrice, Double maxPrice) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        CompletableFuture<Long> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        long startedIn = generation.get();
+        // Cleanup runs outside any map operation, so a count that completes immediately is safe
+        try {
+            CompletableFuture
+                .supplyAsync(() -> productRepository.countSearchProducts(keyword, categoryId, minPrice, maxPrice), executor)
+                .whenComplete((count, error) -> {
+                    if (error != null) {
+                        log.warn("Async search count failed for key {}: {}", key, error.getMessage());
+                    } else {
+                        counts.put(key, count);
+                        // Checked after the put: an invalidation racing it either sees the entry or is seen here
+                        if (generation.get() != startedIn) {
+                            counts.invalidate(key);
+                        }
+                    }
+                    inFlight.remove(key, future);
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        future.complete(count);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!event.stockOnly()) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    private Long estimateFromTableStatistics() {
+        try {
+            return productRepository.estimateTableRows();
+        } catch (Exception e) {
+            // information_schema is MySQL specific; other databases simply get PENDING
+            log.debug("Table statistics unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.copilot.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters counter (Metwally et al.): tracks the most frequent items of an
+ * unbounded stream in a fixed number of counters. When full, a new item replaces the current
+ * minimum and inherits its count, so counts are upper bounds with error at most that minimum.
+ *
+ * Thread-safe; every operation is O(log capacity).
+ */
+class SpaceSavingTopK<T> {
+
+    private static final class Counter<T> {
+        private final T item;
+        private final long count;
+        private final long sequence; // tie-breaker so the TreeSet never treats two counters as equal
+
+        private Counter(T item, long count, long sequence) {
+            this.item = item;
+            this.count = count;
+            this.sequence = sequence;
+        }
+    }
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters = new HashMap<>();
+    private final TreeSet<Counter<T>> byCount = new TreeSet<>(
+        Comparator.<Counter<T>>comparingLong(c -> c.count).thenComparingLong(c -> c.sequence));
+    private long sequence;
+
+    SpaceSavingTopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    synchronized void add(T item) {
+        Counter<T> current = counters.get(item);
+        long base;
+        if (current != null) {
+            byCount.remove(current);
+            base = current.count;
+        } else if (counters.size() < capacity) {
+            base = 0;
+        } else {
+            Counter<T> min = byCount.pollFirst();
+            counters.remove(min.item);
+            base = min.count;
+        }
+        Counter<T> updated = new Counter<>(item, base + 1, sequence++);
+        counters.put(item, updated);
+        byCount.add(updated);
+    }
+
+    /**
+     * Returns up to {@code n} items, most frequent first.
+     */
+    synchronized List<T> top(int n) {
+        List<T> result = new ArrayList<>(Math.min(n, counters.size()));
+        for (Counter<T> counter : byCount.descendingSet()) {
+            if (result.size() >= n) {
+                break;
+            }
+            result.add(counter.item);
+        }
+        return result;
+    }
+
+    /**
+     * Seeds the counter with previously persisted items, highest priority first.
+     */
+    synchronized void seed(List<T> itemsByPriority) {
+        long weight = itemsByPriority.size();
+        for (T item : itemsByPriority) {
+            if (!counters.containsKey(item) && counters.size() < capacity) {
+                Counter<T> counter = new Counter<>(item, weight, sequence++);
+                counters.put(item, counter);
+                byCount.add(counter);
+            }
+            weight--;
+        }
+    }
+
+    synchronized int size() {
+        return counters.size();
+    }
+}
@@ -1,61 +1,145 @@
 package com.example.copilot.service.impl;
 
 import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.dto.CategoryTreeNodeDTO;
 import com.example.copilot.entity.Category;
+import com.example.copilot.event.CategoryChangedEvent;
 import com.example.copilot.exception.ResourceNotFoundException;
 import com.example.copilot.repository.CategoryRepository;
 import com.example.copilot.service.CategoryService;
-import lombok.RequiredArgsConstructor;
+import com.example.copilot.service.CategoryTree;
+import com.example.copilot.service.CategoryTreeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class CategoryServiceImpl implements CategoryService {
+
+    /**
+     * How {@link #searchCategories} matches: {@code index} ranks word-prefix matches on names and
+     * descriptions from the in-memory category tree; {@code database} runs an indexed prefix query
+     * on the normalized name column.
+     */
+    public enum SearchMode { INDEX, DATABASE }
+
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchMode searchMode;
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository,
+                               CategoryTreeService categoryTreeService,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${category.search.mode:index}") String searchMode) {
+        this.categoryRepository = categoryRepository;
+        this.categoryTreeService = categoryTreeService;
+        this.eventPublisher = eventPublisher;
+        this.searchMode = SearchMode.valueOf(searchMode.toUpperCase(Locale.ROOT));
+    }
 
     @Override
     public CategoryDTO create(CategoryDTO categoryDTO) {
         Category category = convertToEntity(categoryDTO);
         Category savedCategory = categoryRepository.save(category);
+        // The path ends with the category's own id, which exists only after the insert
+        savedCategory.setPath(childPath(savedCategory.getParent(), savedCategory.getId()));
+        Long parentId = savedCategory.getParent() != null ? savedCategory.getParent().getId() : null;
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(savedCategory.getId(), parentId, parentId));
         return convertToDTO(savedCategory);
     }
 
     @Override
+    @CacheEvict(value = "category-details", key = "#id")
     public CategoryDTO update(Long id, CategoryDTO categoryDTO) {
         Category category = categoryRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+        Long oldParentId = category.getParent() != null ? category.getParent().getId() : null;
         
         category.setName(categoryDTO.getName());
         category.setDescription(categoryDTO.getDescription());
         
+        Category parent = null;
         if (categoryDTO.getParentId() != null) {
-            Category parent = categoryRepository.findById(categoryDTO.getParentId())
+            parent = categoryRepository.findById(categoryDTO.getParentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Parent category not found with id: " + categoryDTO.getParentId()));
-            category.setParent(parent);
-        } else {
-            category.setParent(null);
+            if (parent.getId().equals(id) || pathOf(parent).startsWith(pathOf(category))) {
+                throw new IllegalArgumentException("Category cannot be moved under itself or its own subcategories");
+            }
         }
-        
-        return convertToDTO(categoryRepository.save(category));
+
+        // Resolved against the old parent, so descendants still carry it as their prefix
+        String oldPath = pathOf(category);
+        category.setParent(parent);
+        String newPath = childPath(parent, id);
+        Category saved = categoryRepository.save(category);
+        if (!oldPath.equals(newPath)) {
+            // Re-root the category and all of its descendants with one UPDATE
+            categoryRepository.movePaths(oldPath, oldPath.length(), newPath);
+            saved.setPath(newPath);
+        }
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(id, oldParentId, parent != null ? parent.getId() : null));
+        return convertToDTO(saved);
+    }
+
+    private static String childPath(Category parent, Long id) {
+        return (parent != null ? pathOf(parent) : "/") + id + "/";
+    }
+
+    /**
+     * The category's materialized path, backfilling it and any ancestors whose path is still
+     * missing (rows written before paths existed). Defaulting a missing path to a root would turn
+     * the category into a pseudo-root that subtree searches from its real ancestors never reach.
+     */
+    private static String pathOf(Category category) {
+        Deque<Category> missing = new ArrayDeque<>();
+        Set<Long> seen = new HashSet<>();
+        Category current = category;
+        while (current != null && current.getPath() == null) {
+            if (!seen.add(current.getId())) {
+                throw new IllegalStateException("Category " + category.getId() + " has a cyclic parent chain");
+            }
+            missing.push(current);
+            current = current.getParent();
+        }
+        String path = current != null ? current.getPath() : "/";
+        for (Category ancestor : missing) {
+            path = path + ancestor.getId() + "/";
+            ancestor.setPath(path);
+        }
+        return category.getPath();
     }
 
     @Override
+    // Deleting cascades to the whole subtree, so every descendant's entry goes too
+    @CacheEvict(value = "category-details", allEntries = true)
     public void delete(Long id) {
-        if (!categoryRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Category not found with id: " + id);
-        }
-        categoryRepository.deleteById(id);
+        Category category = categoryRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
+        Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+        categoryRepository.delete(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id, parentId));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "category-details", key = "#id", sync = true)
     public CategoryDTO findById(Long id) {
         Category category = categoryRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -64,29 +148,71 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "category-lists", key = "'roots'", sync = true)
     public List<CategoryDTO> findAllRootCategories() {
-        return categoryRepository.findAllRootCategories().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return categoryTreeService.current().roots();
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "category-lists", key = "'children_' + #parentId", sync = true)
     public List<CategoryDTO> findSubcategories(Long parentId) {
-        return categoryRepository.findSubcategoriesByParentId(parentId).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return categoryTreeService.current().children(parentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryDTO> findBreadcrumb(Long id) {
+        CategoryTree tree = categoryTreeService.current();
+        if (!tree.contains(id)) {
+            throw new ResourceNotFoundException("Category not found with id: " + id);
+        }
+        return tree.breadcrumb(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findDescendantIds(Long id) {
+        CategoryTree tree = categoryTreeService.current();
+        if (!tree.contains(id)) {
+            throw new ResourceNotFoundException("Category not found with id: " + id);
+        }
+        return Arrays.stream(tree.descendantIds(id)).boxed().toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "category-lists", key = "'tree'", sync = true)
+    public List<CategoryTreeNodeDTO> getCategoryTree() {
+        return categoryTreeService.current().hierarchy();
+    }
+
+    /**
+     * Keyword search ranked exact name match first, then name prefix matches. A blank keyword lists all
+     * categories. In index mode results are ordered by relevance and the pageable's sort is not applied.
+     */
     @Override
     @Transactional(readOnly = true)
     public Page<CategoryDTO> searchCategories(String keyword, Pageable pageable) {
-        return categoryRepository.searchCategories(keyword, pageable)
-            .map(this::convertToDTO);
+        String normalized = Category.normalizeSearchText(keyword);
+        if (normalized == null || normalized.isEmpty()) {
+            return categoryRepository.findAll(pageable).map(this::convertToDTO);
+        }
+        if (searchMode == SearchMode.DATABASE) {
+            return categoryRepository.searchByNamePrefix(normalized, pageable).map(this::convertToDTO);
+        }
+        List<CategoryDTO> matches = categoryTreeService.current().search(normalized);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "category-root-pages", key = "#pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort", sync = true)
     public Page<CategoryDTO> findRootCategories(Pageable pageable) {
         return categoryRepository.findRootCategories(pageable)
             .map(this::convertToDTO);
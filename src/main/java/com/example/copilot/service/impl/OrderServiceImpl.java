@@ -4,6 +4,7 @@ import com.example.copilot.dto.CreateOrderRequestDTO;
 import com.example.copilot.dto.OrderDTO;
 import com.example.copilot.dto.OrderItemDTO;
 import com.example.copilot.entity.*;
+import com.example.copilot.event.ProductChangedEvent;
 import com.example.copilot.exception.InsufficientStockException;
 import com.example.copilot.exception.ResourceNotFoundException;
 import com.example.copilot.repository.OrderItemRepository;
@@ -12,6 +13,7 @@ import com.example.copilot.repository.ProductRepository;
 import com.example.copilot.repository.UserRepository;
 import com.example.copilot.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -169,12 +172,18 @@ public class OrderServiceImpl implements OrderService {
     
     /**
      * Performs batch update of product stock levels for better database performance.
+     * Publishes a change per product so in-memory catalog views pick up the new stock after commit.
      * 
      * @param productsToUpdate list of products with updated stock levels
      */
     private void batchUpdateProductStock(List<Product> productsToUpdate) {
         if (!productsToUpdate.isEmpty()) {
             productRepository.saveAll(productsToUpdate);
+            for (Product product : productsToUpdate) {
+                Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+                eventPublisher.publishEvent(ProductChangedEvent.stockChanged(product.getId(), product.getPrice(),
+                    product.getStock(), categoryId));
+            }
         }
     }
 
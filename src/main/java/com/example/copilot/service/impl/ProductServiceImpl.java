@@ -1,57 +1,101 @@
 package com.example.copilot.service.impl;
 
+import com.example.copilot.dto.CursorSlice;
+import com.example.copilot.dto.FacetedPage;
 import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.dto.ProductCursor;
+import com.example.copilot.dto.ProductFacetsDTO;
+import com.example.copilot.dto.ProductSortOrder;
+import com.example.copilot.dto.ProductSummary;
+import com.example.copilot.dto.RatingHistogramDTO;
 import com.example.copilot.entity.Category;
 import com.example.copilot.entity.Product;
+import com.example.copilot.event.ProductChangedEvent;
 import com.example.copilot.exception.ResourceNotFoundException;
 import com.example.copilot.repository.CategoryRepository;
 import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.service.CatalogSnapshot;
+import com.example.copilot.service.CatalogSnapshotService;
+import com.example.copilot.service.ProductFacetService;
 import com.example.copilot.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductFacetService productFacetService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    @CacheEvict(value = "product-search", allEntries = true)
+    @CacheEvict(value = {"product-search", "product-facets"}, allEntries = true)
     public ProductDTO create(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct.getId(), savedProduct.getPrice(),
+            savedProduct.getStock(), categoryIdOf(savedProduct)));
         return convertToDTO(savedProduct);
     }
 
     @Override
-    @CacheEvict(value = {"product-details", "product-search"}, key = "#id")
+    @Caching(evict = {
+        @CacheEvict(value = "product-details", key = "#id"),
+        @CacheEvict(value = {"product-search", "product-facets"}, allEntries = true)
+    })
     public ProductDTO update(Long id, ProductDTO productDTO) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Long previousCategoryId = categoryIdOf(product);
         
         updateProductFromDTO(product, productDTO);
-        return convertToDTO(productRepository.save(product));
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(savedProduct.getId(), savedProduct.getPrice(),
+            savedProduct.getStock(), categoryIdOf(savedProduct), previousCategoryId));
+        return convertToDTO(savedProduct);
     }
 
     @Override
-    @CacheEvict(value = {"product-details", "product-search"}, key = "#id")
+    @Caching(evict = {
+        @CacheEvict(value = "product-details", key = "#id"),
+        @CacheEvict(value = {"product-search", "product-facets"}, allEntries = true)
+    })
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id, categoryIdOf(product)));
+    }
+
+    private static Long categoryIdOf(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "product-details", key = "#id")
+    @Cacheable(value = "product-details", key = "#id", sync = true)
     public ProductDTO findById(Long id) {
         Product product = productRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
@@ -61,16 +105,105 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> findAll(Pageable pageable) {
-        return productRepository.findAll(pageable)
+        return productRepository.findAllSummaries(pageable)
             .map(this::convertToDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "product-search", key = "'page_' + #keyword + '_' + #categoryId + '_' + #minPrice + '_' + #maxPrice + '_' + #pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort", sync = true)
     public Page<ProductDTO> searchProducts(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
-        return productRepository.searchProducts(keyword, categoryId, minPrice, maxPrice, pageable)
+        return productRepository.searchProductSummaries(keyword, categoryId, minPrice, maxPrice, pageable)
+            .map(this::convertToDTO);
+    }
+
+    /**
+     * Search restricted to a category and all of its descendants. The subtree is matched through the
+     * category's materialized path, so any depth costs one indexed join rather than a tree walk.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductDTO> searchProductsInCategoryTree(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
+        Category category = categoryRepository.findById(categoryId)
+            .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
+        if (category.getPath() == null) {
+            // Searching only the category's own products would silently drop its whole subtree
+            throw new IllegalStateException("Category " + categoryId + " has no materialized path; run the V5 path backfill");
+        }
+        return productRepository.searchProductSummariesInSubtree(keyword, category.getPath(), minPrice, maxPrice, pageable)
             .map(this::convertToDTO);
     }
+
+    /**
+     * Count-free variant of {@link #searchProducts}: returns a Slice so only the page query runs.
+     * Use {@code SearchCountEstimator} when an (approximate) total is needed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> searchProductsSlice(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
+        return productRepository.searchProductSummariesSlice(keyword, categoryId, minPrice, maxPrice, pageable)
+            .map(this::convertToDTO);
+    }
+
+    /**
+     * Search that also returns category and price-range facet counts for the whole result set.
+     * Facets come from a single grouped query and are cached separately from the result page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedPage<ProductDTO> searchProductsWithFacets(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                                            List<Double> priceBoundaries, Pageable pageable) {
+        Page<ProductDTO> page = searchProducts(keyword, categoryId, minPrice, maxPrice, pageable);
+        ProductFacetsDTO facets = productFacetService.computeFacets(keyword, categoryId, minPrice, maxPrice, priceBoundaries);
+        return new FacetedPage<>(page, facets);
+    }
+    
+    /**
+     * Keyset (seek) pagination: continues after the row encoded in {@code cursor} rather than skipping
+     * an offset, so every slice costs the same regardless of depth. Fetches size+1 rows to detect
+     * whether a next slice exists and never runs a count query.
+     *
+     * @param cursor opaque cursor from the previous slice, or null for the first slice
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another sort order
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<ProductDTO> searchProductsKeyset(String keyword, Long categoryId, Double minPrice, Double maxPrice,
+                                                        ProductSortOrder sort, String cursor, int size) {
+        ProductCursor after = cursor != null && !cursor.isBlank() ? ProductCursor.decode(cursor, sort) : null;
+        Long lastId = after != null ? after.getId() : null;
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<Product> products = new ArrayList<>();
+        List<Integer> ranks = new ArrayList<>();
+        switch (sort) {
+            case NAME -> products.addAll(productRepository.findNextByName(keyword, categoryId, minPrice, maxPrice,
+                after != null ? after.getName() : null, lastId, limit));
+            case PRICE -> products.addAll(productRepository.findNextByPrice(keyword, categoryId, minPrice, maxPrice,
+                after != null ? after.getPrice() : null, lastId, limit));
+            case RELEVANCE -> productRepository.findNextByRelevance(keyword, categoryId, minPrice, maxPrice,
+                    after != null ? after.getRank() : null, after != null ? after.getName() : null, lastId, limit)
+                .forEach(row -> {
+                    products.add((Product) row[0]);
+                    ranks.add(((Number) row[1]).intValue());
+                });
+        }
+
+        boolean hasNext = products.size() > size;
+        List<Product> slice = hasNext ? products.subList(0, size) : products;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = slice.get(slice.size() - 1);
+            ProductCursor next = switch (sort) {
+                case NAME -> ProductCursor.afterName(last.getName(), last.getId());
+                case PRICE -> ProductCursor.afterPrice(last.getPrice(), last.getId());
+                case RELEVANCE -> ProductCursor.afterRelevance(ranks.get(slice.size() - 1), last.getName(), last.getId());
+            };
+            nextCursor = next.encode();
+        }
+
+        return new CursorSlice<>(slice.stream().map(this::convertToDTO).toList(), size, hasNext, nextCursor);
+    }
     
     /**
      * OPTIMIZED: High-performance search method that leverages database collation indexes
@@ -85,7 +218,7 @@ public class ProductServiceImpl implements ProductService {
      * @return page of matching products with relevance-based ordering
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "product-search", key = "#keyword + '_' + #categoryId + '_' + #minPrice + '_' + #maxPrice + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "product-search", key = "#keyword + '_' + #categoryId + '_' + #minPrice + '_' + #maxPrice + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
     public Page<ProductDTO> searchProductsOptimized(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
         // Use the optimized repository method that leverages proper indexing
         return productRepository.searchProductsOptimizedCollation(keyword, categoryId, minPrice, maxPrice, pageable)
@@ -104,7 +237,7 @@ public class ProductServiceImpl implements ProductService {
      * @return page of matching products ordered by relevance
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "product-search", key = "#keyword + '_' + #categoryId + '_' + #minPrice + '_' + #maxPrice + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "product-search", key = "#keyword + '_' + #categoryId + '_' + #minPrice + '_' + #maxPrice + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", sync = true)
     public Page<ProductDTO> searchProductsByNameOptimized(String keyword, Long categoryId, Double minPrice, Double maxPrice, Pageable pageable) {
         return productRepository.searchProductsByNameOptimized(keyword, categoryId, minPrice, maxPrice, pageable)
             .map(this::convertToDTO);
@@ -113,24 +246,75 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> findByCategoryId(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable)
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null && categoryId != null && pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            return hydrate(snapshot.inCategory(categoryId, pageable.getOffset(), pageable.getPageSize()), pageable);
+        }
+        return productRepository.findSummariesByCategoryId(categoryId, pageable)
             .map(this::convertToDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> findByPriceRange(Double minPrice, Double maxPrice, Pageable pageable) {
-        return productRepository.findByPriceRange(minPrice, maxPrice, pageable)
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null && minPrice != null && maxPrice != null && pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            return hydrate(snapshot.priceRange(minPrice, maxPrice, pageable.getOffset(), pageable.getPageSize()), pageable);
+        }
+        return productRepository.findSummariesByPriceRange(minPrice, maxPrice, pageable)
             .map(this::convertToDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDTO> findLowStockProducts(Integer threshold, Pageable pageable) {
-        return productRepository.findLowStockProducts(threshold, pageable)
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        if (snapshot != null && threshold != null && pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            return hydrate(snapshot.lowStock(threshold, pageable.getOffset(), pageable.getPageSize()), pageable);
+        }
+        return productRepository.findLowStockSummaries(threshold, pageable)
             .map(this::convertToDTO);
     }
 
+    /**
+     * Loads listing rows for one page of snapshot ids, keeping the snapshot's order.
+     * Ids deleted since the snapshot was built are skipped.
+     */
+    private Page<ProductDTO> hydrate(CatalogSnapshot.IdPage idPage, Pageable pageable) {
+        if (idPage.ids().length == 0) {
+            return new PageImpl<>(List.of(), pageable, idPage.total());
+        }
+        List<Long> ids = Arrays.stream(idPage.ids()).boxed().toList();
+        Map<Long, ProductSummary> byId = productRepository.findSummariesByIds(ids).stream()
+            .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductDTO> content = ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .map(this::convertToDTO)
+            .toList();
+        return new PageImpl<>(content, pageable, idPage.total());
+    }
+
+    /**
+     * Star histograms for a listing page in one query, in the order requested; unknown ids are skipped.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RatingHistogramDTO> getRatingHistograms(List<Long> productIds) {
+        Map<Long, RatingHistogramDTO> byId = new HashMap<>();
+        for (Object[] row : productRepository.findRatingHistograms(productIds)) {
+            List<Integer> counts = new ArrayList<>(5);
+            int total = 0;
+            for (int k = 1; k <= 5; k++) {
+                int count = row[k] != null ? (Integer) row[k] : 0;
+                counts.add(count);
+                total += count;
+            }
+            byId.put((Long) row[0], new RatingHistogramDTO((Long) row[0], counts, total));
+        }
+        return productIds.stream().distinct().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     private Product convertToEntity(ProductDTO dto) {
         Product product = new Product();
         product.setId(dto.getId());
@@ -160,6 +344,7 @@ public class ProductServiceImpl implements ProductService {
         dto.setStock(entity.getStock());
         dto.setAverageRating(entity.getAverageRating());
         dto.setReviewCount(entity.getReviewCount());
+        dto.setRatingHistogram(entity.getRatingHistogram());
         
         if (entity.getCategory() != null) {
             dto.setCategoryId(entity.getCategory().getId());
@@ -167,4 +352,19 @@ public class ProductServiceImpl implements ProductService {
         
         return dto;
     }
+
+    /**
+     * Maps a listing projection; description is intentionally not loaded for listing pages.
+     */
+    private ProductDTO convertToDTO(ProductSummary summary) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(summary.id());
+        dto.setName(summary.name());
+        dto.setPrice(summary.price());
+        dto.setStock(summary.stock());
+        dto.setAverageRating(summary.averageRating());
+        dto.setReviewCount(summary.reviewCount());
+        dto.setCategoryId(summary.categoryId());
+        return dto;
+    }
 }
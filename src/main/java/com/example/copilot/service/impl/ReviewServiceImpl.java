@@ -1,11 +1,14 @@
 package com.example.copilot.service.impl;
 
 import com.example.copilot.dto.CreateReviewRequestDTO;
+import com.example.copilot.dto.CursorSlice;
+import com.example.copilot.dto.ReviewCursor;
 import com.example.copilot.dto.ReviewDTO;
 import com.example.copilot.dto.UpdateReviewRequestDTO;
 import com.example.copilot.entity.Product;
 import com.example.copilot.entity.Review;
 import com.example.copilot.entity.User;
+import com.example.copilot.event.ReviewChangedEvent;
 import com.example.copilot.exception.DuplicateReviewException;
 import com.example.copilot.exception.ResourceNotFoundException;
 import com.example.copilot.exception.UserNotPurchasedProductException;
@@ -14,25 +17,33 @@ import com.example.copilot.repository.ProductRepository;
 import com.example.copilot.repository.ReviewRepository;
 import com.example.copilot.repository.UserRepository;
 import com.example.copilot.service.OrderService;
+import com.example.copilot.service.ReviewEligibilityCache;
 import com.example.copilot.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewServiceImpl implements ReviewService {
     
+    private static final int EXPORT_BATCH_SIZE = 1000;
     
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderService orderService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReviewEligibilityCache eligibilityCache;
 
     @Override
     @Transactional
@@ -66,8 +77,9 @@ public class ReviewServiceImpl implements ReviewService {
         
         Review savedReview = reviewRepository.save(review);
         
-        // Now, call a new private helper method named 'updateProductAverageRating'
-        updateProductAverageRating(productId);
+        // The product's rating aggregates and the review search index are updated after commit
+        eventPublisher.publishEvent(ReviewChangedEvent.created(productId, savedReview.getId(), userId,
+            savedReview.getRating(), savedReview.getContent()));
         
         return mapToDTO(savedReview);
     }
@@ -102,8 +114,9 @@ public class ReviewServiceImpl implements ReviewService {
         
         Review savedReview = reviewRepository.save(review);
         
-        // Update product rating statistics
-        recalculateProductAverageRating(request.getProductId());
+        // The product's rating aggregates and the review search index are updated after commit
+        eventPublisher.publishEvent(ReviewChangedEvent.created(request.getProductId(), savedReview.getId(), userId,
+            savedReview.getRating(), savedReview.getContent()));
         
         return mapToDTO(savedReview);
     }
@@ -119,13 +132,15 @@ public class ReviewServiceImpl implements ReviewService {
             throw new ValidationException("You can only update your own reviews");
         }
         
+        int previousRating = review.getRating();
         review.setContent(request.getContent());
         review.setRating(request.getRating());
         
         Review updatedReview = reviewRepository.save(review);
         
-        // Update product rating statistics
-        recalculateProductAverageRating(review.getProduct().getId());
+        // Only the rating difference moves the sum; the count is unchanged
+        eventPublisher.publishEvent(ReviewChangedEvent.updated(review.getProduct().getId(), reviewId, userId, previousRating,
+            updatedReview.getRating(), updatedReview.getContent()));
         
         return mapToDTO(updatedReview);
     }
@@ -144,8 +159,8 @@ public class ReviewServiceImpl implements ReviewService {
         Long productId = review.getProduct().getId();
         reviewRepository.delete(review);
         
-        // Update product rating statistics
-        recalculateProductAverageRating(productId);
+        // Take the rating back out of the product's running sum and count
+        eventPublisher.publishEvent(ReviewChangedEvent.deleted(productId, reviewId, userId, review.getRating()));
     }
 
     @Override
@@ -157,74 +172,85 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     public List<ReviewDTO> getReviewsByProductId(Long productId) {
-        List<Review> reviews = reviewRepository.findByProductId(productId);
-        return reviews.stream()
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+        return reviewRepository.findDTOsByProductId(productId);
     }
 
     @Override
     public List<ReviewDTO> getReviewsByUserId(Long userId) {
-        List<Review> reviews = reviewRepository.findByUserId(userId);
-        return reviews.stream()
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+        return reviewRepository.findDTOsByUserId(userId);
     }
 
     @Override
     public Page<ReviewDTO> getReviewsByProductId(Long productId, Pageable pageable) {
-        Page<Review> reviews = reviewRepository.findAll(
-            (root, query, criteriaBuilder) -> 
-                criteriaBuilder.equal(root.get("product").get("id"), productId),
-            pageable
-        );
-        return reviews.map(this::mapToDTO);
+        return reviewRepository.findDTOsByProductId(productId, pageable);
     }
 
     @Override
-    public boolean canUserReviewProduct(Long userId, Long productId) {
-        // User can review if they have purchased the product and haven't reviewed it yet
-        return orderService.hasUserPurchasedProduct(userId, productId) 
-            && !reviewRepository.existsByUserIdAndProductId(userId, productId);
+    public CursorSlice<ReviewDTO> getProductReviewFeed(Long productId, String cursor, int size) {
+        return nextSlice((lastCreatedAt, lastId, limit) ->
+            reviewRepository.findNextByProductId(productId, lastCreatedAt, lastId, limit), cursor, size);
     }
 
-    @Transactional
-    private void updateProductRatingStatistics(Long productId) {
-        recalculateProductAverageRating(productId);
+    @Override
+    public CursorSlice<ReviewDTO> getUserReviewFeed(Long userId, String cursor, int size) {
+        return nextSlice((lastCreatedAt, lastId, limit) ->
+            reviewRepository.findNextByUserId(userId, lastCreatedAt, lastId, limit), cursor, size);
     }
 
     /**
-     * Helper method that accepts a productId and updates the Product's average rating
-     * Uses JPQL query in ReviewRepository to calculate the average rating directly in the database for efficiency
+     * Walks the product feed in keyset batches without a surrounding transaction, so only one batch
+     * of projections is held at a time however many reviews the product has.
      */
-    @Transactional
-    private void updateProductAverageRating(Long productId) {
-        // Use JPQL query to calculate the average rating directly in the database for efficiency
-        Double averageRating = reviewRepository.findAverageRatingByProductId(productId);
-        Long reviewCount = reviewRepository.countByProductId(productId);
-        
-        // Update the Product with the calculated average rating
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-        
-        product.setAverageRating(averageRating != null ? averageRating : 0.0);
-        product.setReviewCount(reviewCount.intValue());
-        
-        productRepository.save(product);
+    @Override
+    public long exportProductReviews(Long productId, Consumer<ReviewDTO> sink) {
+        long exported = 0;
+        LocalDateTime lastCreatedAt = null;
+        Long lastId = null;
+        Pageable limit = PageRequest.of(0, EXPORT_BATCH_SIZE);
+        List<ReviewDTO> batch;
+        do {
+            batch = reviewRepository.findNextByProductId(productId, lastCreatedAt, lastId, limit);
+            batch.forEach(sink);
+            exported += batch.size();
+            if (!batch.isEmpty()) {
+                ReviewDTO last = batch.get(batch.size() - 1);
+                lastCreatedAt = last.getCreatedAt();
+                lastId = last.getId();
+            }
+        } while (batch.size() == EXPORT_BATCH_SIZE);
+        return exported;
     }
 
-    @Transactional
-    private void recalculateProductAverageRating(Long productId) {
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
-        
-        Double averageRating = reviewRepository.findAverageRatingByProductId(productId);
-        Long reviewCount = reviewRepository.countByProductId(productId);
-        
-        product.setAverageRating(averageRating != null ? averageRating : 0.0);
-        product.setReviewCount(reviewCount.intValue());
-        
-        productRepository.save(product);
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<ReviewDTO> next(LocalDateTime lastCreatedAt, Long lastId, Pageable limit);
+    }
+
+    /**
+     * Fetches size+1 rows after the cursor to detect whether a next slice exists; never counts.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    private CursorSlice<ReviewDTO> nextSlice(KeysetQuery query, String cursor, int size) {
+        ReviewCursor after = cursor != null && !cursor.isBlank() ? ReviewCursor.decode(cursor) : null;
+        List<ReviewDTO> reviews = query.next(after != null ? after.getCreatedAt() : null,
+            after != null ? after.getId() : null, PageRequest.of(0, size + 1));
+
+        boolean hasNext = reviews.size() > size;
+        List<ReviewDTO> slice = hasNext ? reviews.subList(0, size) : reviews;
+        String nextCursor = hasNext ? ReviewCursor.after(slice.get(slice.size() - 1)).encode() : null;
+        return new CursorSlice<>(slice, size, hasNext, nextCursor);
+    }
+
+    @Override
+    public boolean canUserReviewProduct(Long userId, Long productId) {
+        // User can review if they have purchased the product and haven't reviewed it yet
+        return eligibilityCache.canReview(userId, productId);
+    }
+
+    @Override
+    public Map<Long, Boolean> canUserReviewProducts(Long userId, List<Long> productIds) {
+        return eligibilityCache.canReview(userId, productIds);
     }
 
     private ReviewDTO mapToDTO(Review review) {
@@ -2,11 +2,13 @@ package com.example.copilot.service.impl;
 
 import com.example.copilot.dto.UserDTO;
 import com.example.copilot.entity.User;
+import com.example.copilot.event.UserChangedEvent;
 import com.example.copilot.exception.ResourceNotFoundException;
 import com.example.copilot.repository.UserRepository;
 import com.example.copilot.service.UserService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,6 +21,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
@@ -49,19 +54,22 @@ public class UserServiceImpl implements UserService {
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        String previousEmail = user.getEmail();
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
         user.setRole(userDTO.getRole());
         User updatedUser = userRepository.save(user);
+        // Drops cached user details and makes tokens issued before the change fall back to a lookup
+        eventPublisher.publishEvent(new UserChangedEvent(id, previousEmail));
         return convertToDTO(updatedUser);
     }
 
     @Override
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail()));
     }
 
     private UserDTO convertToDTO(User user) {
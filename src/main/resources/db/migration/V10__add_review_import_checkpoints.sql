@@ -0,0 +1,16 @@
+-- Migration for resumable bulk review imports
+-- One row per import job, updated in the same transaction as each inserted batch,
+-- plus the products each job has written reviews for
+
+CREATE TABLE review_import_checkpoints (
+    job_id        VARCHAR(100) NOT NULL PRIMARY KEY,
+    last_line     BIGINT       NOT NULL,
+    rows_imported BIGINT       NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL
+);
+
+CREATE TABLE review_import_checkpoint_products (
+    job_id     VARCHAR(100) NOT NULL,
+    product_id BIGINT       NOT NULL,
+    PRIMARY KEY (job_id, product_id)
+);
@@ -0,0 +1,25 @@
+-- Migration for category-subtree product search
+-- Adds a materialized path ("/1/5/12/") to categories so a whole subtree is one prefix range
+
+ALTER TABLE categories ADD COLUMN path VARCHAR(512);
+
+-- Backfill paths for the existing hierarchy. Each missing path is anchored at the nearest ancestor
+-- that has one (or at a root), so re-running the backfill after rows were written without a path
+-- puts them inside that ancestor's subtree instead of turning them into pseudo-roots
+UPDATE categories c
+JOIN (
+    WITH RECURSIVE tree (id, path) AS (
+        SELECT child.id, CONCAT(COALESCE(parent.path, '/'), child.id, '/')
+        FROM categories child LEFT JOIN categories parent ON parent.id = child.parent_id
+        WHERE child.path IS NULL AND (child.parent_id IS NULL OR parent.path IS NOT NULL)
+        UNION ALL
+        SELECT child.id, CONCAT(tree.path, child.id, '/')
+        FROM categories child JOIN tree ON child.parent_id = tree.id
+        WHERE child.path IS NULL
+    )
+    SELECT id, path FROM tree
+) computed ON computed.id = c.id
+SET c.path = computed.path;
+
+-- Prefix lookups (path LIKE '/1/5/%') select a subtree with one index range scan
+CREATE INDEX idx_category_path ON categories (path);
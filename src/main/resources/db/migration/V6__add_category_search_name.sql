@@ -0,0 +1,10 @@
+-- Migration for indexed category search
+-- Replaces LOWER(name) LIKE '%kw%' scans with a prefix range scan on a normalized copy of the name
+
+ALTER TABLE categories ADD COLUMN search_name VARCHAR(255);
+
+-- Approximate backfill (lower-case, trimmed); the application rewrites the fully normalized value
+-- (accents stripped, punctuation collapsed) the next time each category is saved
+UPDATE categories SET search_name = LOWER(TRIM(name));
+
+CREATE INDEX idx_category_search_name ON categories (search_name);
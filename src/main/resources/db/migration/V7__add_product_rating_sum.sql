@@ -0,0 +1,8 @@
+-- Migration for incremental product rating aggregates
+-- Running sum of review ratings; with review_count it gives average_rating without scanning reviews
+ALTER TABLE products ADD COLUMN rating_sum BIGINT NOT NULL DEFAULT 0;
+
+UPDATE products p
+SET p.rating_sum     = (SELECT COALESCE(SUM(r.rating), 0) FROM reviews r WHERE r.product_id = p.id),
+    p.review_count   = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id),
+    p.average_rating = COALESCE((SELECT AVG(r.rating) FROM reviews r WHERE r.product_id = p.id), 0.0);
@@ -0,0 +1,8 @@
+-- Migration for keyset-paginated review feeds
+-- Feeds seek on (created_at, id) newest first, so created_at must be set on every row
+
+UPDATE reviews SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+
+-- Equality on the owner, then the seek columns: each slice is one index range scan
+CREATE INDEX idx_reviews_product_created ON reviews (product_id, created_at, id);
+CREATE INDEX idx_reviews_user_created ON reviews (user_id, created_at, id);
@@ -0,0 +1,15 @@
+-- Migration for the per-product star histogram
+-- Maintained with rating_sum / review_count by the review rating pipeline
+
+ALTER TABLE products ADD COLUMN rating_1_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN rating_2_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN rating_3_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN rating_4_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN rating_5_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE products p
+SET p.rating_1_count = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id AND r.rating = 1),
+    p.rating_2_count = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id AND r.rating = 2),
+    p.rating_3_count = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id AND r.rating = 3),
+    p.rating_4_count = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id AND r.rating = 4),
+    p.rating_5_count = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id AND r.rating = 5);
@@ -0,0 +1,163 @@
+package com.example.copilot.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingCacheTest {
+
+    private static final Duration FRESH = Duration.ofMinutes(5);
+    private static final Duration STALE = Duration.ofMinutes(10);
+
+    @Test
+    void concurrentMisses_ShouldRunLoaderOnceAndShareResult() throws Exception {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("product-details"), FRESH, STALE, Runnable::run);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 20;
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> cache.get(42L, () -> {
+                loaderCalls.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return "product-42";
+            })));
+        }
+        // Let every caller reach the cache before the single loader finishes
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("product-42", result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, loaderCalls.get());
+        CoalescingCache.CoalescingStats stats = cache.getStats();
+        assertEquals(1, stats.loads());
+        assertEquals(callers - 1, stats.coalesced() + stats.hits());
+    }
+
+    @Test
+    void loaderFailure_ShouldPropagateToAllWaitersAndNotCache() {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("product-details"), FRESH, STALE, Runnable::run);
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(7L, () -> {
+            throw new IllegalStateException("not found");
+        }));
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    void expiredEntry_ShouldBeServedStaleWhileOneBackgroundRefreshRuns() {
+        MutableClock clock = new MutableClock();
+        List<Runnable> scheduledRefreshes = new ArrayList<>();
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("product-search"), FRESH, STALE, scheduledRefreshes::add, clock);
+        cache.put("laptop_0_20", "v1");
+
+        clock.advance(FRESH.plusSeconds(1));
+        assertEquals("v1", cache.get("laptop_0_20", () -> "v2"));
+        assertEquals("v1", cache.get("laptop_0_20", () -> "v2"));
+        assertEquals(1, scheduledRefreshes.size(), "only one refresh per key");
+
+        scheduledRefreshes.get(0).run();
+        assertEquals("v2", cache.get("laptop_0_20", () -> "v3"));
+
+        CoalescingCache.CoalescingStats stats = cache.getStats();
+        assertEquals(2, stats.staleServed());
+        assertEquals(1, stats.refreshes());
+        assertEquals(1, stats.hits());
+    }
+
+    @Test
+    void entryPastStaleWindow_ShouldBeTreatedAsMiss() {
+        MutableClock clock = new MutableClock();
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("product-details"), FRESH, STALE, Runnable::run, clock);
+        cache.put(1L, "old");
+
+        clock.advance(FRESH.plus(STALE).plusSeconds(1));
+
+        assertNull(cache.get(1L));
+        assertEquals("new", cache.get(1L, () -> "new"));
+    }
+
+    @Test
+    void entryPastStaleWindow_ShouldBeRemovedFromTheStore() {
+        MutableClock clock = new MutableClock();
+        ConcurrentMapCache store = new ConcurrentMapCache("product-search");
+        CoalescingCache cache = new CoalescingCache(store, FRESH, STALE, Runnable::run, clock);
+        cache.put("laptop_0_20", "old");
+
+        clock.advance(FRESH.plus(STALE).plusSeconds(1));
+        assertNull(cache.get("laptop_0_20"));
+
+        assertTrue(store.getNativeCache().isEmpty());
+    }
+
+    @Test
+    void configuredStore_ShouldHoldAtMostMaxEntries() {
+        CoalescingCache cache = CacheConfig.coalescingCache("product-search", FRESH, STALE, 100, Runnable::run);
+
+        for (int page = 0; page < 1_000; page++) {
+            cache.put("keyword_" + page, "page " + page);
+        }
+
+        Map<?, ?> store = (Map<?, ?>) cache.getNativeCache();
+        assertTrue(store.size() <= 100, "store holds " + store.size() + " entries");
+        assertEquals("page 999", cache.get("keyword_999").get());
+    }
+
+    @Test
+    void evictDuringLoad_ShouldNotReinsertValueLoadedBeforeEviction() {
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("product-details"), FRESH, STALE, Runnable::run);
+
+        String loaded = cache.get(5L, () -> {
+            cache.evict(5L); // concurrent update evicts while the load is running
+            return "before-update";
+        });
+
+        assertEquals("before-update", loaded);
+        assertNull(cache.get(5L));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.copilot.controller;
+
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.service.CategoryProductCountService;
+import com.example.copilot.service.CategoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryControllerETagTest {
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private CategoryProductCountService categoryProductCountService;
+
+    private ObjectMapper objectMapper;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = spy(new ObjectMapper());
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new CategoryController(categoryService, categoryProductCountService, new ContentETags(objectMapper)))
+            .build();
+    }
+
+    private static CategoryDTO category(Long id, String name) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+
+    @Test
+    void getById_ShouldReturn304WhenIfNoneMatchMatches() throws Exception {
+        when(categoryService.findById(1L)).thenReturn(category(1L, "Electronics"));
+
+        String etag = mockMvc.perform(get("/api/categories/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.name").value("Electronics"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/categories/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void getById_ShouldReturnNewTagWhenContentChanges() throws Exception {
+        when(categoryService.findById(1L))
+            .thenReturn(category(1L, "Electronics"))
+            .thenReturn(category(1L, "Consumer Electronics"));
+
+        String etag = mockMvc.perform(get("/api/categories/1"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/categories/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Consumer Electronics"));
+    }
+
+    @Test
+    void tagFor_ShouldHashEachInstanceOnce() throws Exception {
+        ContentETags contentETags = new ContentETags(objectMapper);
+        List<CategoryDTO> roots = List.of(category(1L, "Electronics"), category(2L, "Books"));
+
+        String first = contentETags.tagFor(roots);
+        String second = contentETags.tagFor(roots);
+
+        assertEquals(first, second);
+        assertEquals(first, contentETags.tagFor(new ArrayList<>(roots)));
+        verify(objectMapper, times(2)).writeValue(any(OutputStream.class), any());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.copilot.repository;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.entity.Category;
+import com.example.copilot.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares heap allocation per listing request for entity hydration versus record projections.
+ * Uses the per-thread allocation counter of the HotSpot ThreadMXBean (the same counter JFR samples).
+ * The measurement is tagged {@code benchmark} and runs with {@code mvn test -Pbenchmark}.
+ */
+@H2DataJpaTest
+public class ProductProjectionAllocationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductProjectionAllocationTest.class);
+
+    private static final int REQUESTS = 200;
+    private static final Pageable PAGE = PageRequest.of(0, 50);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long categoryId;
+
+    // Products with long descriptions that listing pages never display
+    private void seed(int count) {
+        Category category = new Category();
+        category.setName("Alloc-" + System.nanoTime());
+        categoryId = categoryRepository.save(category).getId();
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("A long marketing description that listing pages never display. ".repeat(20));
+            product.setPrice(10.0 + i);
+            product.setStock(i % 30);
+            product.setCategory(category);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void projectionListing_ShouldAllocateLessThanEntityListing() {
+        seed(500);
+        long entityBytes = allocatedPerRequest(() -> productRepository.findByCategoryId(categoryId, PAGE).getContent());
+        long projectionBytes = allocatedPerRequest(() -> productRepository.findSummariesByCategoryId(categoryId, PAGE).getContent());
+
+        log.info("Entity listing {} bytes/request, projection listing {} bytes/request", entityBytes, projectionBytes);
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    @Test
+    void projectionListing_ShouldReturnListingColumns() {
+        seed(3);
+        var summary = productRepository.findSummariesByCategoryId(categoryId, PAGE).getContent().get(0);
+
+        assertThat(summary.categoryId()).isEqualTo(categoryId);
+        assertThat(summary.name()).startsWith("Product ");
+        assertThat(summary.averageRating()).isEqualTo(0.0);
+    }
+
+    private long allocatedPerRequest(Runnable request) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up query plans and JIT before measuring
+        for (int i = 0; i < 20; i++) {
+            request.run();
+            entityManager.clear();
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < REQUESTS; i++) {
+            request.run();
+            entityManager.clear(); // each request gets a fresh persistence context
+        }
+        return (threadBean.getThreadAllocatedBytes(threadId) - before) / REQUESTS;
+    }
+}
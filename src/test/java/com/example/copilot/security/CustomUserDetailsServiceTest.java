@@ -0,0 +1,77 @@
+package com.example.copilot.security;
+
+import com.example.copilot.entity.User;
+import com.example.copilot.event.UserChangedEvent;
+import com.example.copilot.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CustomUserDetailsServiceTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDetailsService = new CustomUserDetailsService(userRepository, 100, 60);
+    }
+
+    private static User user(String role) {
+        User user = new User();
+        user.setId(3L);
+        user.setName("Carol");
+        user.setEmail("carol@example.com");
+        user.setPassword("encoded");
+        user.setRole(role);
+        return user;
+    }
+
+    @Test
+    void loadUserByUsername_ShouldQueryOnceAndHandOutCopies() {
+        when(userRepository.findByEmail("carol@example.com")).thenReturn(Optional.of(user("USER")));
+
+        CustomUserDetails first = (CustomUserDetails) userDetailsService.loadUserByUsername("carol@example.com");
+        first.eraseCredentials(); // as ProviderManager does after a login
+        UserDetails second = userDetailsService.loadUserByUsername("carol@example.com");
+
+        assertEquals(3L, first.getId());
+        assertEquals("USER", first.getRole());
+        assertEquals("encoded", second.getPassword());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByEmail("carol@example.com");
+    }
+
+    @Test
+    void onUserChanged_ShouldReloadTheUser() {
+        when(userRepository.findByEmail("carol@example.com"))
+            .thenReturn(Optional.of(user("USER")), Optional.of(user("ADMIN")));
+        userDetailsService.loadUserByUsername("carol@example.com");
+
+        userDetailsService.onUserChanged(new UserChangedEvent(3L, "carol@example.com"));
+
+        CustomUserDetails reloaded = (CustomUserDetails) userDetailsService.loadUserByUsername("carol@example.com");
+        assertEquals("ADMIN", reloaded.getRole());
+        verify(userRepository, times(2)).findByEmail("carol@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheUnknownUsers() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("nobody@example.com"));
+        verify(userRepository, times(2)).findByEmail("nobody@example.com");
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.copilot.security;
+
+import com.example.copilot.event.UserChangedEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenVerifierTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenVerifierTest.class);
+
+    private static final String SECRET = "myVerySecureSecretKeyThatIs256BitsLongForHS256Algorithm12345";
+
+    private final JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, 100, 300);
+    private final JwtTokenUtil tokenUtil = new JwtTokenUtil(verifier, 3600L);
+    private final UserDetails alice = User.withUsername("alice@example.com").password("x").roles("USER").build();
+    private final UserDetailsService userDetailsService = username -> alice;
+    private final CustomUserDetails bob = new CustomUserDetails(7L, "bob@example.com", "x", "ADMIN");
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final UserDetailsService countingUserDetailsService = username -> {
+        lookups.incrementAndGet();
+        return bob.copy();
+    };
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static String token(String secret, String subject, long expiresInMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .subject(subject)
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + expiresInMillis))
+            .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+            .compact();
+    }
+
+    private static String claimsToken(long issuedMillisAgo) {
+        long issuedAt = System.currentTimeMillis() - issuedMillisAgo;
+        return Jwts.builder()
+            .subject("bob@example.com")
+            .claim(JwtTokenUtil.ROLE_CLAIM, "ADMIN")
+            .claim(JwtTokenUtil.USER_ID_CLAIM, 7L)
+            .issuedAt(new Date(issuedAt))
+            .expiration(new Date(issuedAt + 3_600_000))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .compact();
+    }
+
+    @Test
+    void verify_ShouldParseOnceAndCacheThePrincipal() {
+        String token = tokenUtil.generateToken(alice);
+
+        Optional<JwtPrincipal> first = verifier.verify(token);
+        Optional<JwtPrincipal> second = verifier.verify(token);
+
+        assertTrue(first.isPresent());
+        assertEquals("alice@example.com", first.get().username());
+        assertTrue(first.get().expiresAt().isAfter(first.get().issuedAt()));
+        assertSame(first.get(), second.get(), "second request is served from the cache");
+        assertEquals(1, verifier.cachedTokens());
+        assertTrue(tokenUtil.validateToken(token, alice));
+    }
+
+    @Test
+    void verify_ShouldRejectForgedExpiredAndMalformedTokens() {
+        String forged = token("anotherSecretKeyThatIsAlsoLongEnoughForHS256Signing", "alice@example.com", 60_000);
+        String expired = token(SECRET, "alice@example.com", -1_000);
+        String valid = token(SECRET, "alice@example.com", 60_000);
+        String tampered = valid.substring(0, valid.length() - 2) + (valid.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(verifier.verify(forged).isEmpty());
+        assertTrue(verifier.verify(expired).isEmpty());
+        assertTrue(verifier.verify(tampered).isEmpty());
+        assertTrue(verifier.verify("invalid-jwt-token").isEmpty());
+        assertTrue(verifier.verify("").isEmpty());
+        assertEquals(0, verifier.cachedTokens(), "rejected tokens are not cached");
+        assertFalse(tokenUtil.validateToken(expired, alice));
+    }
+
+    @Test
+    void verify_ShouldStopAcceptingACachedTokenOnceItExpires() throws InterruptedException {
+        String shortLived = token(SECRET, "alice@example.com", 1_500);
+        assertTrue(verifier.verify(shortLived).isPresent());
+
+        Thread.sleep(1_600);
+
+        assertTrue(verifier.verify(shortLived).isEmpty());
+    }
+
+    @Test
+    void filter_ShouldAuthenticateValidBearerTokens() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(verifier, userDetailsService, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/user/1");
+        request.addHeader("Authorization", "Bearer " + tokenUtil.generateToken(alice));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(alice, authentication.getPrincipal());
+
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/api/v1/orders/user/1");
+        forged.addHeader("Authorization", "Bearer invalid-jwt-token");
+        filter.doFilter(forged, new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/user/7");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void filter_ShouldAuthenticateFromClaimsWithoutLoadingTheUser() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(verifier, countingUserDetailsService, true);
+        String token = tokenUtil.generateToken(bob);
+
+        Authentication authentication = authenticate(filter, token);
+
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(7L, principal.userId());
+        assertEquals("bob@example.com", authentication.getName());
+        assertEquals(List.of("ROLE_ADMIN"), authentication.getAuthorities().stream().map(Object::toString).toList());
+        assertEquals(0, lookups.get());
+
+        // Tokens without the claims, and the stateful mode, still load the user
+        authenticate(filter, token(SECRET, "bob@example.com", 60_000));
+        authenticate(new JwtAuthenticationFilter(verifier, countingUserDetailsService, false), token);
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void filter_ShouldLoadTheUserOnceItChangedAfterTheTokenWasIssued() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(verifier, countingUserDetailsService, true);
+        String token = tokenUtil.generateToken(bob);
+        assertInstanceOf(JwtPrincipal.class, authenticate(filter, token).getPrincipal());
+
+        verifier.onUserChanged(new UserChangedEvent(7L, "bob@example.com"));
+
+        Authentication authentication = authenticate(filter, token);
+        assertInstanceOf(CustomUserDetails.class, authentication.getPrincipal());
+        assertEquals(1, lookups.get());
+        assertFalse(verifier.hasCurrentClaims(verifier.verify(tokenUtil.generateToken(alice)).orElseThrow()),
+            "tokens without claims are never current");
+    }
+
+    @Test
+    void filter_ShouldLoadTheUserOnceTheClaimsWindowHasPassed() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(verifier, countingUserDetailsService, true);
+
+        // No change event reaches this instance (restart, or a change made on another one)
+        assertInstanceOf(JwtPrincipal.class, authenticate(filter, claimsToken(60_000)).getPrincipal());
+        assertEquals(0, lookups.get());
+
+        Authentication authentication = authenticate(filter, claimsToken(301_000));
+        assertInstanceOf(CustomUserDetails.class, authentication.getPrincipal());
+        assertEquals(1, lookups.get());
+    }
+
+    // The previous filter path: subject parse, then validateToken's two further parses, each
+    // deriving the key and building a parser
+    private static boolean legacyValidate(String token, String secret) {
+        Function<String, Claims> parse = t -> Jwts.parser()
+            .verifyWith(Keys.hmacShaKeyFor(secret.getBytes())).build().parseSignedClaims(t).getPayload();
+        String username = parse.apply(token).getSubject();
+        return username.equals(parse.apply(token).getSubject()) && !parse.apply(token).getExpiration().before(new Date());
+    }
+
+    /**
+     * Filter overhead per request, measured in-process rather than with JMH (not part of the build):
+     * legacy triple parse vs one cached verification per request for a reused token.
+     */
+    @Test
+    @Tag("benchmark")
+    void filterOverheadBenchmark_CachedVerificationVersusTripleParse() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(verifier, userDetailsService, true);
+        String token = tokenUtil.generateToken(alice);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/user/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        int requests = 20_000;
+
+        for (int i = 0; i < requests; i++) { // warm up both paths
+            legacyValidate(token, SECRET);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            SecurityContextHolder.clearContext();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            assertTrue(legacyValidate(token, SECRET));
+        }
+        double legacyMicros = (System.nanoTime() - start) / 1e3 / requests;
+
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            SecurityContextHolder.clearContext();
+        }
+        double filterMicros = (System.nanoTime() - start) / 1e3 / requests;
+
+        log.info("JWT per request: triple parse {} us, filter with verified-token cache {} us", legacyMicros, filterMicros);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.SearchKey;
+import com.example.copilot.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmingServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @TempDir
+    Path tempDir;
+
+    private HotKeyTracker hotKeyTracker;
+    private CacheWarmingService cacheWarmingService;
+
+    @BeforeEach
+    void setUp() {
+        hotKeyTracker = new HotKeyTracker(100);
+        cacheWarmingService = newService(hotKeyTracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheWarmingService.shutdown();
+    }
+
+    private CacheWarmingService newService(HotKeyTracker tracker) {
+        return new CacheWarmingService(productService, tracker, new ObjectMapper(), true,
+            tempDir.toString(), "warmup.json", 2, 4, 10);
+    }
+
+    @Test
+    void spaceSaving_ShouldKeepHeavyHittersWithinBoundedCounters() {
+        SpaceSavingTopK<String> topK = new SpaceSavingTopK<>(10);
+        for (int round = 0; round < 200; round++) {
+            topK.add("hot-a");
+            if (round % 2 == 0) {
+                topK.add("hot-b");
+            }
+            topK.add("cold-" + round);
+        }
+
+        assertEquals(10, topK.size());
+        assertEquals(List.of("hot-a", "hot-b"), topK.top(2));
+    }
+
+    @Test
+    void warmHotKeys_ShouldLoadTopProductsAndSearches() {
+        IntStream.range(0, 5).forEach(i -> hotKeyTracker.recordProductView(1L));
+        IntStream.range(0, 3).forEach(i -> hotKeyTracker.recordProductView(2L));
+        hotKeyTracker.recordProductView(3L);
+        SearchKey search = SearchKey.of("laptop", null, null, 1000.0, PageRequest.of(0, 20, Sort.by("price").descending()));
+        hotKeyTracker.recordSearch(search);
+
+        CacheWarmingService.WarmupResult result = cacheWarmingService.warmHotKeys();
+
+        assertEquals(2, result.productsWarmed());
+        assertEquals(1, result.searchesWarmed());
+        verify(productService).findById(1L);
+        verify(productService).findById(2L);
+        verify(productService, never()).findById(3L);
+        verify(productService).searchProducts(eq("laptop"), isNull(), isNull(), eq(1000.0),
+            eq(PageRequest.of(0, 20, Sort.by("price").descending())));
+    }
+
+    @Test
+    void warm_ShouldCountMissingProductsAsFailuresAndContinue() {
+        lenient().when(productService.findById(99L)).thenThrow(new ResourceNotFoundException("Product not found with id: 99"));
+
+        CacheWarmingService.WarmupResult result = cacheWarmingService.warmProducts(List.of(1L, 99L));
+
+        assertEquals(1, result.productsWarmed());
+        assertEquals(1, result.failures());
+    }
+
+    @Test
+    void persistedHotList_ShouldBeReloadedAndWarmedOnStartup() throws Exception {
+        IntStream.range(0, 3).forEach(i -> hotKeyTracker.recordProductView(7L));
+        hotKeyTracker.recordProductView(8L);
+        hotKeyTracker.recordSearch(SearchKey.of("phone", 2L, 100.0, null, PageRequest.of(1, 10)));
+        cacheWarmingService.persist();
+
+        HotKeyTracker restartedTracker = new HotKeyTracker(100);
+        CacheWarmingService restarted = newService(restartedTracker);
+        try {
+            restarted.run(new DefaultApplicationArguments());
+        } finally {
+            restarted.shutdown();
+        }
+
+        verify(productService).findById(7L);
+        verify(productService).findById(8L);
+        verify(productService).searchProducts(eq("phone"), eq(2L), eq(100.0), isNull(), any());
+        assertEquals(List.of(7L, 8L), restartedTracker.topProductIds(10));
+    }
+}
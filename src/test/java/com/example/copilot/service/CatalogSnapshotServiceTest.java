@@ -0,0 +1,96 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.entity.Category;
+import com.example.copilot.entity.Product;
+import com.example.copilot.event.ProductChangedEvent;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import({ProductServiceImpl.class, ProductFacetService.class, CatalogSnapshotService.class})
+public class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Snapshot-" + System.nanoTime());
+        categoryRepository.save(category);
+        for (int i = 0; i < 60; i++) {
+            Product product = new Product();
+            product.setName("Item " + i);
+            product.setPrice(5.0 + (i * 7) % 100);
+            product.setStock(i % 12);
+            product.setCategory(i % 3 == 0 ? category : null);
+            productRepository.save(product);
+        }
+        // Test data is never committed, so load on this thread rather than through the async listener
+        catalogSnapshotService.reloadNow();
+    }
+
+    private static List<Long> ids(Page<ProductDTO> page) {
+        return page.getContent().stream().map(ProductDTO::getId).toList();
+    }
+
+    @Test
+    void listings_ShouldMatchDatabaseResultsInTheSameOrder() {
+        assertNotNull(catalogSnapshotService.current());
+
+        Sort byPrice = Sort.by("price", "id");
+        Page<ProductDTO> fromSnapshot = productService.findByPriceRange(20.0, 70.0, PageRequest.of(1, 10));
+        Page<ProductDTO> fromDatabase = productService.findByPriceRange(20.0, 70.0, PageRequest.of(1, 10, byPrice));
+        assertEquals(fromDatabase.getTotalElements(), fromSnapshot.getTotalElements());
+        assertEquals(ids(fromDatabase), ids(fromSnapshot));
+        assertEquals(fromDatabase.getContent(), fromSnapshot.getContent());
+
+        Page<ProductDTO> lowStock = productService.findLowStockProducts(3, PageRequest.of(0, 100));
+        assertEquals(productService.findLowStockProducts(3, PageRequest.of(0, 100, Sort.by("stock", "id"))).getContent(),
+            lowStock.getContent());
+
+        Page<ProductDTO> inCategory = productService.findByCategoryId(category.getId(), PageRequest.of(0, 5));
+        assertEquals(20, inCategory.getTotalElements());
+        assertEquals(ids(productService.findByCategoryId(category.getId(), PageRequest.of(0, 5, byPrice))), ids(inCategory));
+    }
+
+    @Test
+    void drain_ShouldApplyQueuedChangesAsNewSnapshot() throws Exception {
+        CatalogSnapshot before = catalogSnapshotService.current();
+        Product cheapest = productRepository.findAll(Sort.by("price", "id")).get(0);
+
+        catalogSnapshotService.onProductChanged(ProductChangedEvent.updated(cheapest.getId(), 1000.0, 50, null, null));
+        catalogSnapshotService.awaitDrain();
+
+        CatalogSnapshot after = catalogSnapshotService.current();
+        assertNotSame(before, after);
+        assertEquals(cheapest.getId(), before.priceRange(0, 10_000, 0, 1).ids()[0]);
+        assertNotEquals(cheapest.getId(), after.priceRange(0, 10_000, 0, 1).ids()[0]);
+        assertEquals(1, after.priceRange(1000, 1000, 0, 10).total());
+    }
+}
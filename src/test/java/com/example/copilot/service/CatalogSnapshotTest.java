@@ -0,0 +1,132 @@
+package com.example.copilot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+
+    private record Product(long id, double price, int stock, Long categoryId) {
+    }
+
+    private static CatalogSnapshot snapshotOf(List<Product> products) {
+        return CatalogSnapshot.of(
+            products.stream().mapToLong(Product::id).toArray(),
+            products.stream().mapToDouble(Product::price).toArray(),
+            products.stream().mapToInt(Product::stock).toArray(),
+            products.stream().map(Product::categoryId).toArray(Long[]::new));
+    }
+
+    private static List<Product> randomCatalog(Random random, int size) {
+        return IntStream.range(0, size)
+            .mapToObj(i -> new Product(i + 1, 1 + random.nextInt(500), random.nextInt(40),
+                random.nextInt(10) == 0 ? null : (long) random.nextInt(8)))
+            .toList();
+    }
+
+    private static long[] ids(List<Product> products) {
+        return products.stream().mapToLong(Product::id).toArray();
+    }
+
+    @Test
+    void queries_ShouldMatchBruteForceFilteringAndOrdering() {
+        Random random = new Random(42);
+        List<Product> catalog = randomCatalog(random, 2_000);
+        CatalogSnapshot snapshot = snapshotOf(catalog);
+        Comparator<Product> byPrice = Comparator.comparingDouble(Product::price).thenComparingLong(Product::id);
+        Comparator<Product> byStock = Comparator.comparingInt(Product::stock).thenComparingLong(Product::id);
+
+        for (int round = 0; round < 50; round++) {
+            double min = random.nextInt(500);
+            double max = min + random.nextInt(200);
+            List<Product> expected = catalog.stream().filter(p -> p.price() >= min && p.price() <= max).sorted(byPrice).toList();
+            CatalogSnapshot.IdPage page = snapshot.priceRange(min, max, 20, 25);
+            assertEquals(expected.size(), page.total());
+            assertArrayEquals(ids(expected.subList(Math.min(20, expected.size()), Math.min(45, expected.size()))), page.ids());
+
+            int threshold = random.nextInt(40);
+            List<Product> low = catalog.stream().filter(p -> p.stock() < threshold).sorted(byStock).toList();
+            CatalogSnapshot.IdPage lowPage = snapshot.lowStock(threshold, 10, 30);
+            assertEquals(low.size(), lowPage.total());
+            assertArrayEquals(ids(low.subList(Math.min(10, low.size()), Math.min(40, low.size()))), lowPage.ids());
+
+            long categoryId = random.nextInt(8);
+            List<Product> inCategory = catalog.stream()
+                .filter(p -> p.categoryId() != null && p.categoryId() == categoryId).sorted(byPrice).toList();
+            CatalogSnapshot.IdPage categoryPage = snapshot.inCategory(categoryId, 5, 15);
+            assertEquals(inCategory.size(), categoryPage.total());
+            assertArrayEquals(ids(inCategory.subList(5, 20)), categoryPage.ids());
+        }
+    }
+
+    @Test
+    void priceRange_ShouldBeEmptyWhenBoundsAreInvertedOrBeyondData() {
+        CatalogSnapshot snapshot = snapshotOf(List.of(new Product(1, 10, 1, 1L), new Product(2, 20, 1, 1L)));
+
+        assertEquals(0, snapshot.priceRange(30, 10, 0, 10).total());
+        assertEquals(0, snapshot.priceRange(10, 20, 5, 10).ids().length);
+        assertEquals(2, snapshot.priceRange(10, 20, 5, 10).total());
+        assertEquals(0, snapshot.inCategory(99, 0, 10).total());
+    }
+
+    @Test
+    void withChanges_ShouldCopyOnWriteWithoutTouchingTheOriginal() {
+        CatalogSnapshot original = snapshotOf(List.of(
+            new Product(1, 10, 5, 1L), new Product(2, 20, 0, 1L), new Product(3, 30, 9, 2L)));
+
+        Map<Long, CatalogSnapshot.Row> changes = new LinkedHashMap<>();
+        changes.put(1L, new CatalogSnapshot.Row(1, 35.0, 5, 2L));
+        changes.put(2L, new CatalogSnapshot.Row(2, null, 0, null));
+        changes.put(4L, new CatalogSnapshot.Row(4, 5.0, 1, null));
+        CatalogSnapshot updated = original.withChanges(changes);
+
+        assertArrayEquals(new long[]{1, 2, 3}, original.priceRange(0, 100, 0, 10).ids());
+        assertArrayEquals(new long[]{4, 3, 1}, updated.priceRange(0, 100, 0, 10).ids());
+        assertArrayEquals(new long[]{3, 1}, updated.inCategory(2, 0, 10).ids());
+        assertEquals(0, updated.inCategory(1, 0, 10).total());
+        assertArrayEquals(new long[]{4}, updated.lowStock(2, 0, 10).ids());
+        assertEquals(3, updated.size());
+        assertTrue(Arrays.stream(original.lowStock(1, 0, 10).ids()).anyMatch(id -> id == 2));
+    }
+
+    @Test
+    void withChanges_ShouldMatchASnapshotRebuiltFromScratch() {
+        Random random = new Random(7);
+        Map<Long, Product> catalog = new LinkedHashMap<>();
+        randomCatalog(random, 1_000).forEach(p -> catalog.put(p.id(), p));
+        CatalogSnapshot snapshot = snapshotOf(List.copyOf(catalog.values()));
+
+        for (int round = 0; round < 30; round++) {
+            Map<Long, CatalogSnapshot.Row> changes = new LinkedHashMap<>();
+            for (int c = random.nextInt(20); c >= 0; c--) {
+                long id = 1 + random.nextInt(1_100);
+                if (random.nextInt(4) == 0) {
+                    changes.put(id, new CatalogSnapshot.Row(id, null, 0, null));
+                    catalog.remove(id);
+                } else {
+                    Product product = new Product(id, 1 + random.nextInt(500), random.nextInt(40),
+                        random.nextInt(10) == 0 ? null : (long) random.nextInt(12));
+                    changes.put(id, new CatalogSnapshot.Row(id, product.price(), product.stock(), product.categoryId()));
+                    catalog.put(id, product);
+                }
+            }
+            snapshot = snapshot.withChanges(changes);
+            CatalogSnapshot rebuilt = snapshotOf(List.copyOf(catalog.values()));
+
+            assertEquals(rebuilt.size(), snapshot.size());
+            assertArrayEquals(rebuilt.priceRange(0, 1_000, 0, 2_000).ids(), snapshot.priceRange(0, 1_000, 0, 2_000).ids());
+            assertArrayEquals(rebuilt.lowStock(40, 0, 2_000).ids(), snapshot.lowStock(40, 0, 2_000).ids());
+            for (long categoryId = 0; categoryId < 12; categoryId++) {
+                assertArrayEquals(rebuilt.inCategory(categoryId, 0, 2_000).ids(), snapshot.inCategory(categoryId, 0, 2_000).ids());
+            }
+        }
+    }
+}
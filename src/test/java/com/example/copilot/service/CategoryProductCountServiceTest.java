@@ -0,0 +1,142 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CategoryProductCountDTO;
+import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.entity.Category;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without the test-managed transaction so counter updates after commit can be observed.
+ */
+@H2DataJpaTest
+@Import({CategoryProductCountService.class, CategoryTreeService.class, ProductServiceImpl.class, ProductFacetService.class,
+    CatalogSnapshotService.class, CategoryProductCountServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "catalog.snapshot.enabled=false")
+public class CategoryProductCountServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private CategoryProductCountService countService;
+
+    @Autowired
+    private CategoryTreeService categoryTreeService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Category root;
+    private Category child;
+    private Category other;
+
+    @BeforeEach
+    void setUp() {
+        root = category("Root", null);
+        child = category("Child", root);
+        other = category("Other", null);
+        categoryTreeService.reload();
+        countService.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE category_id IN (?, ?, ?)", root.getId(), child.getId(), other.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE id = ?", child.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE id IN (?, ?)", root.getId(), other.getId());
+    }
+
+    private Category category(String name, Category parent) {
+        Category category = new Category();
+        category.setName(name + "-" + System.nanoTime());
+        category.setParent(parent);
+        return categoryRepository.save(category);
+    }
+
+    private ProductDTO product(String name, Category category) {
+        ProductDTO dto = new ProductDTO();
+        dto.setName(name);
+        dto.setPrice(10.0);
+        dto.setStock(1);
+        dto.setCategoryId(category.getId());
+        return productService.create(dto);
+    }
+
+    private Map<Long, CategoryProductCountDTO> counts() {
+        return countService.getCounts().stream()
+            .collect(Collectors.toMap(CategoryProductCountDTO::getCategoryId, Function.identity()));
+    }
+
+    @Test
+    void productWrites_ShouldMoveDirectAndSubtreeCounts() {
+        product("Lamp", root);
+        ProductDTO desk = product("Desk", child);
+        ProductDTO chair = product("Chair", child);
+
+        Map<Long, CategoryProductCountDTO> counts = counts();
+        assertEquals(1, counts.get(root.getId()).getProductCount());
+        assertEquals(3, counts.get(root.getId()).getSubtreeProductCount());
+        assertEquals(2, counts.get(child.getId()).getSubtreeProductCount());
+        assertEquals(0, counts.get(other.getId()).getSubtreeProductCount());
+
+        desk.setCategoryId(other.getId());
+        productService.update(desk.getId(), desk);
+        productService.delete(chair.getId());
+
+        counts = counts();
+        assertEquals(1, counts.get(root.getId()).getSubtreeProductCount());
+        assertEquals(0, counts.get(child.getId()).getProductCount());
+        assertEquals(1, counts.get(other.getId()).getProductCount());
+        assertEquals(0, countService.reconcile(), "incremental counters match the database");
+    }
+
+    @Test
+    void reconcile_ShouldRepairWritesThatBypassedTheService() {
+        product("Lamp", child);
+        jdbcTemplate.update("INSERT INTO products (name, price, stock, category_id) VALUES ('Direct', 5.0, 1, ?)", child.getId());
+        assertEquals(1, counts().get(child.getId()).getProductCount());
+
+        assertEquals(1, countService.reconcile());
+
+        assertEquals(2, counts().get(child.getId()).getProductCount());
+        assertEquals(2, counts().get(root.getId()).getSubtreeProductCount());
+        assertEquals(productRepository.countByCategoryId(child.getId()), counts().get(child.getId()).getProductCount());
+    }
+}
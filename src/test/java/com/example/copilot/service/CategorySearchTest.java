@@ -0,0 +1,104 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.entity.Category;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.service.impl.CategoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import({CategoryServiceImpl.class, CategoryTreeService.class, CategorySearchTest.Config.class})
+public class CategorySearchTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryTreeService categoryTreeService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category gamingNotebooks;
+    private Category notebookBags;
+    private Category notebook;
+
+    @BeforeEach
+    void setUp() {
+        gamingNotebooks = save("Gaming Notebooks", null);
+        notebookBags = save("Notebook Bags", null);
+        notebook = save("  NOTEBOOK ", null);
+        save("Accessories", "Docks for any notebook");
+        categoryRepository.flush();
+        // Test data is never committed, so rebuild the tree on this thread rather than after commit
+        categoryTreeService.reload();
+    }
+
+    private Category save(String name, String description) {
+        Category category = new Category();
+        category.setName(name);
+        category.setDescription(description);
+        return categoryRepository.save(category);
+    }
+
+    private static List<String> names(Page<CategoryDTO> page) {
+        return page.getContent().stream().map(CategoryDTO::getName).toList();
+    }
+
+    @Test
+    void save_ShouldMaintainNormalizedSearchName() {
+        assertEquals("notebook", categoryRepository.findById(notebook.getId()).orElseThrow().getSearchName());
+
+        notebookBags.setName("Notebook Sleeves & Bags");
+        categoryRepository.saveAndFlush(notebookBags);
+        assertEquals("notebook sleeves bags", categoryRepository.findById(notebookBags.getId()).orElseThrow().getSearchName());
+    }
+
+    @Test
+    void databaseMode_ShouldMatchNamePrefixWithExactMatchFirst() {
+        Page<Category> page = categoryRepository.searchByNamePrefix("notebook", PageRequest.of(0, 10));
+
+        assertEquals(List.of(notebook.getId(), notebookBags.getId()),
+            page.getContent().stream().map(Category::getId).toList());
+        assertEquals(2, page.getTotalElements());
+    }
+
+    @Test
+    void indexMode_ShouldRankAndPageWordPrefixMatches() {
+        Page<CategoryDTO> first = categoryService.searchCategories("Notebook", PageRequest.of(0, 2));
+        Page<CategoryDTO> second = categoryService.searchCategories("Notebook", PageRequest.of(1, 2));
+
+        assertEquals(4, first.getTotalElements());
+        assertEquals(List.of("  NOTEBOOK ", "Notebook Bags"), names(first));
+        assertEquals(List.of("Gaming Notebooks", "Accessories"), names(second));
+        assertEquals(List.of(gamingNotebooks.getName()), names(categoryService.searchCategories("gaming note", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void blankKeyword_ShouldListAllCategories() {
+        Page<CategoryDTO> all = categoryService.searchCategories(" ", PageRequest.of(0, 50));
+        assertEquals(categoryRepository.count(), all.getTotalElements());
+    }
+}
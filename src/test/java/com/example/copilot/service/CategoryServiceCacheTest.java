@@ -0,0 +1,161 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.exception.ResourceNotFoundException;
+import com.example.copilot.service.impl.CategoryServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without the test-managed transaction so invalidation after commit can be observed.
+ */
+@H2DataJpaTest
+@Import({CategoryServiceImpl.class, CategoryTreeService.class, CategoryServiceCacheTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CategoryServiceCacheTest {
+
+    @TestConfiguration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("category-details", "category-lists", "category-root-pages");
+        }
+    }
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> created = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int i = created.size() - 1; i >= 0; i--) {
+            try {
+                categoryService.delete(created.get(i));
+            } catch (ResourceNotFoundException ignored) {
+                // already removed with its parent
+            }
+        }
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private CategoryDTO create(String name, Long parentId) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setName(name + "-" + System.nanoTime());
+        dto.setParentId(parentId);
+        CategoryDTO saved = categoryService.create(dto);
+        created.add(saved.getId());
+        return saved;
+    }
+
+    private static List<Long> ids(List<CategoryDTO> categories) {
+        return categories.stream().map(CategoryDTO::getId).toList();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromCacheUntilTheCategoryIsUpdated() {
+        CategoryDTO category = create("Cached", null);
+        categoryService.findById(category.getId());
+
+        statistics.clear();
+        categoryService.findById(category.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        category.setName("Renamed-" + System.nanoTime());
+        categoryService.update(category.getId(), category);
+        assertEquals(category.getName(), categoryService.findById(category.getId()).getName());
+    }
+
+    @Test
+    void move_ShouldEvictOldAndNewParentListsOnly() {
+        CategoryDTO a = create("A", null);
+        CategoryDTO b = create("B", null);
+        CategoryDTO c = create("C", null);
+        CategoryDTO child = create("Child", a.getId());
+        create("Other", c.getId());
+
+        List<CategoryDTO> childrenOfA = categoryService.findSubcategories(a.getId());
+        List<CategoryDTO> childrenOfB = categoryService.findSubcategories(b.getId());
+        List<CategoryDTO> childrenOfC = categoryService.findSubcategories(c.getId());
+        List<CategoryDTO> roots = categoryService.findAllRootCategories();
+        assertSame(childrenOfA, categoryService.findSubcategories(a.getId()), "second read is a cache hit");
+
+        child.setParentId(b.getId());
+        categoryService.update(child.getId(), child);
+
+        assertEquals(List.of(), categoryService.findSubcategories(a.getId()));
+        assertEquals(List.of(child.getId()), ids(categoryService.findSubcategories(b.getId())));
+        assertNotSame(childrenOfB, categoryService.findSubcategories(b.getId()));
+        assertSame(childrenOfC, categoryService.findSubcategories(c.getId()), "unrelated list stays cached");
+        assertSame(roots, categoryService.findAllRootCategories(), "moving a non-root leaves the root list alone");
+        assertEquals(b.getId(), categoryService.findById(child.getId()).getParentId());
+    }
+
+    @Test
+    void rootWrites_ShouldEvictRootListsAndPages() {
+        CategoryDTO first = create("Root", null);
+        List<CategoryDTO> roots = categoryService.findAllRootCategories();
+        Page<CategoryDTO> page = categoryService.findRootCategories(PageRequest.of(0, 100));
+        assertSame(page, categoryService.findRootCategories(PageRequest.of(0, 100)));
+
+        CategoryDTO second = create("Root", null);
+
+        assertTrue(ids(categoryService.findAllRootCategories()).containsAll(List.of(first.getId(), second.getId())));
+        assertNotSame(roots, categoryService.findAllRootCategories());
+        assertEquals(page.getTotalElements() + 1, categoryService.findRootCategories(PageRequest.of(0, 100)).getTotalElements());
+    }
+
+    @Test
+    void delete_ShouldEvictTheCategoryAndItsParentList() {
+        CategoryDTO root = create("Root", null);
+        CategoryDTO kept = create("Kept", root.getId());
+        CategoryDTO removed = create("Removed", root.getId());
+        categoryService.findById(removed.getId());
+        categoryService.findSubcategories(root.getId());
+        categoryService.getCategoryTree();
+
+        categoryService.delete(removed.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> categoryService.findById(removed.getId()));
+        assertEquals(List.of(kept.getId()), ids(categoryService.findSubcategories(root.getId())));
+        assertTrue(categoryService.getCategoryTree().stream()
+            .filter(node -> node.getId().equals(root.getId()))
+            .allMatch(node -> node.getChildren().size() == 1));
+    }
+}
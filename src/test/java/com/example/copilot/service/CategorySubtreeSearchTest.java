@@ -0,0 +1,274 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.entity.Category;
+import com.example.copilot.entity.Product;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.service.impl.CategoryServiceImpl;
+import com.example.copilot.service.impl.ProductServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import({CategoryServiceImpl.class, CategoryTreeService.class, ProductServiceImpl.class, ProductFacetService.class, CatalogSnapshotService.class, CategorySubtreeSearchTest.Config.class})
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "catalog.snapshot.enabled=false"
+})
+public class CategorySubtreeSearchTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CategorySubtreeSearchTest.class);
+
+    private static final long ID_BASE = 100_000;
+    private static final int LEVELS = 5;
+    private static final int ROOTS = 4;
+    private static final int FANOUT = 7;
+    private static final int MAX_NODES = 10_000;
+    private static final int PRODUCTS_PER_CATEGORY = 2;
+    private static final int REQUESTS = 50;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private CategoryDTO createCategory(String name, Long parentId) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setName(name + "-" + System.nanoTime());
+        dto.setParentId(parentId);
+        return categoryService.create(dto);
+    }
+
+    private String pathOf(Long categoryId) {
+        return categoryRepository.findById(categoryId).orElseThrow().getPath();
+    }
+
+    private void addProduct(String name, double price, Long categoryId) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setStock(10);
+        product.setCategory(categoryRepository.findById(categoryId).orElseThrow());
+        productRepository.save(product);
+    }
+
+    @Test
+    void create_ShouldAppendOwnIdToParentPath() {
+        CategoryDTO root = createCategory("Root", null);
+        CategoryDTO child = createCategory("Child", root.getId());
+
+        assertEquals("/" + root.getId() + "/", pathOf(root.getId()));
+        assertEquals("/" + root.getId() + "/" + child.getId() + "/", pathOf(child.getId()));
+    }
+
+    @Test
+    void update_ShouldReRootWholeSubtreeWhenParentChanges() {
+        CategoryDTO a = createCategory("A", null);
+        CategoryDTO b = createCategory("B", null);
+        CategoryDTO child = createCategory("Child", a.getId());
+        CategoryDTO grandchild = createCategory("Grandchild", child.getId());
+
+        child.setParentId(b.getId());
+        categoryService.update(child.getId(), child);
+
+        String expected = "/" + b.getId() + "/" + child.getId() + "/";
+        assertEquals(expected, pathOf(child.getId()));
+        assertEquals(expected + grandchild.getId() + "/", pathOf(grandchild.getId()));
+        assertEquals("/" + a.getId() + "/", pathOf(a.getId()));
+    }
+
+    @Test
+    void update_ShouldRejectMovingUnderOwnDescendant() {
+        CategoryDTO root = createCategory("Root", null);
+        CategoryDTO child = createCategory("Child", root.getId());
+
+        root.setParentId(child.getId());
+        assertThrows(IllegalArgumentException.class, () -> categoryService.update(root.getId(), root));
+        root.setParentId(root.getId());
+        assertThrows(IllegalArgumentException.class, () -> categoryService.update(root.getId(), root));
+    }
+
+    @Test
+    void searchInCategoryTree_ShouldIncludeDescendantsButNotSiblings() {
+        CategoryDTO root = createCategory("Root", null);
+        CategoryDTO child = createCategory("Child", root.getId());
+        CategoryDTO grandchild = createCategory("Grandchild", child.getId());
+        CategoryDTO sibling = createCategory("Sibling", null);
+        addProduct("Tree Lamp", 10.0, root.getId());
+        addProduct("Tree Desk", 20.0, child.getId());
+        addProduct("Tree Chair", 30.0, grandchild.getId());
+        addProduct("Tree Sofa", 40.0, sibling.getId());
+
+        Page<ProductDTO> subtree = productService.searchProductsInCategoryTree(null, child.getId(), null, null, PageRequest.of(0, 10));
+        assertEquals(List.of("Tree Chair", "Tree Desk"),
+            subtree.getContent().stream().map(ProductDTO::getName).sorted().toList());
+
+        Page<ProductDTO> filtered = productService.searchProductsInCategoryTree("tree", root.getId(), 15.0, null, PageRequest.of(0, 10));
+        assertEquals(2, filtered.getTotalElements());
+    }
+
+    @Test
+    void create_ShouldBackfillMissingParentPathInsteadOfStartingPseudoRoot() {
+        CategoryDTO root = createCategory("Root", null);
+        long legacyId = ID_BASE - 1;
+        jdbcTemplate.update("INSERT INTO categories (id, name, parent_id, path) VALUES (?, ?, ?, NULL)",
+            legacyId, "Legacy-" + legacyId, root.getId());
+
+        CategoryDTO child = createCategory("Child", legacyId);
+        addProduct("Legacy Lamp", 10.0, child.getId());
+
+        String legacyPath = "/" + root.getId() + "/" + legacyId + "/";
+        assertEquals(legacyPath, pathOf(legacyId));
+        assertEquals(legacyPath + child.getId() + "/", pathOf(child.getId()));
+        Page<ProductDTO> subtree = productService.searchProductsInCategoryTree(null, root.getId(), null, null, PageRequest.of(0, 10));
+        assertEquals(List.of("Legacy Lamp"), subtree.getContent().stream().map(ProductDTO::getName).toList());
+    }
+
+    @Test
+    void searchInCategoryTree_ShouldFailForCategoryWithoutPath() {
+        long legacyId = ID_BASE - 2;
+        jdbcTemplate.update("INSERT INTO categories (id, name, parent_id, path) VALUES (?, ?, NULL, NULL)",
+            legacyId, "Legacy-" + legacyId);
+
+        assertThrows(IllegalStateException.class,
+            () -> productService.searchProductsInCategoryTree(null, legacyId, null, null, PageRequest.of(0, 10)));
+    }
+
+    /**
+     * 5-level tree capped at 10k categories. Walking a subtree with findByParentId costs a statement
+     * per category; the path prefix join answers the same question in a fixed number. The subtree of
+     * the first second-level category (400 categories) keeps the walk's runtime reasonable.
+     */
+    @Test
+    void subtreeSearch_PathJoinShouldUseFixedStatementCount() {
+        seedTree();
+        long rootId = ID_BASE + ROOTS;
+
+        statistics.clear();
+        long walkedTotal = countByRecursiveWalk(rootId);
+        long walkStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<ProductDTO> page = productService.searchProductsInCategoryTree(null, rootId, null, null, PageRequest.of(0, 20));
+        long pathStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(walkedTotal, page.getTotalElements());
+        assertTrue(pathStatements <= 3, "category lookup, page and count");
+        assertTrue(walkStatements > 400, "the walk touches every category in the subtree");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void subtreeSearchBenchmark_PathJoinVersusRecursiveWalk() {
+        seedTree();
+        long rootId = ID_BASE + ROOTS;
+
+        long walkStart = System.nanoTime();
+        countByRecursiveWalk(rootId);
+        long walkNanos = System.nanoTime() - walkStart;
+
+        productService.searchProductsInCategoryTree(null, rootId, null, null, PageRequest.of(0, 20)); // warm up
+        long pathStart = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            productService.searchProductsInCategoryTree(null, rootId, null, null, PageRequest.of(0, 20));
+        }
+        long pathNanos = (System.nanoTime() - pathStart) / REQUESTS;
+
+        log.info("Recursive walk {} ms, path join {} ms/request", walkNanos / 1_000_000.0, pathNanos / 1_000_000.0);
+    }
+
+    private long countByRecursiveWalk(Long categoryId) {
+        long total = productRepository.countByCategoryId(categoryId);
+        for (Category child : categoryRepository.findByParentId(categoryId)) {
+            total += countByRecursiveWalk(child.getId());
+        }
+        return total;
+    }
+
+    // Breadth-first: roots, then each level's children, until MAX_NODES categories exist
+    private void seedTree() {
+        List<Object[]> categories = new ArrayList<>();
+        List<Object[]> level = new ArrayList<>();
+        long nextId = ID_BASE;
+        for (int r = 0; r < ROOTS; r++) {
+            long id = nextId++;
+            Object[] row = {id, "Tree-" + id, null, "/" + id + "/"};
+            level.add(row);
+            categories.add(row);
+        }
+        for (int depth = 1; depth < LEVELS && categories.size() < MAX_NODES; depth++) {
+            List<Object[]> next = new ArrayList<>();
+            for (Object[] parent : level) {
+                for (int c = 0; c < FANOUT && categories.size() < MAX_NODES; c++) {
+                    long id = nextId++;
+                    Object[] row = {id, "Tree-" + id, parent[0], parent[3] + String.valueOf(id) + "/"};
+                    next.add(row);
+                    categories.add(row);
+                }
+            }
+            level = next;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name, parent_id, path) VALUES (?, ?, ?, ?)", categories);
+
+        List<Object[]> products = new ArrayList<>(categories.size() * PRODUCTS_PER_CATEGORY);
+        for (Object[] category : categories) {
+            for (int p = 0; p < PRODUCTS_PER_CATEGORY; p++) {
+                products.add(new Object[]{"Product " + category[0] + "-" + p, 10.0 + p, 5, category[0]});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, price, stock, category_id) VALUES (?, ?, ?, ?)", products);
+        assertEquals(MAX_NODES, categories.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.service.impl.CategoryServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without the test-managed transaction so the tree swap after commit can be observed.
+ */
+@H2DataJpaTest
+@Import({CategoryServiceImpl.class, CategoryTreeService.class, CategoryTreeServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CategoryTreeServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> created = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Deleting a category cascades to its subcategories; delete leaves first
+        for (int i = created.size() - 1; i >= 0; i--) {
+            try {
+                categoryService.delete(created.get(i));
+            } catch (RuntimeException ignored) {
+                // already removed with its parent
+            }
+        }
+    }
+
+    private CategoryDTO create(String name, Long parentId) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setName(name + "-" + System.nanoTime());
+        dto.setParentId(parentId);
+        CategoryDTO saved = categoryService.create(dto);
+        created.add(saved.getId());
+        return saved;
+    }
+
+    @Test
+    void navigationReads_ShouldNotTouchTheDatabase() {
+        CategoryDTO root = create("Root", null);
+        CategoryDTO child = create("Child", root.getId());
+        categoryService.getCategoryTree();
+
+        statistics.clear();
+        assertTrue(categoryService.findAllRootCategories().stream().anyMatch(c -> c.getId().equals(root.getId())));
+        assertEquals(List.of(child.getId()), categoryService.findSubcategories(root.getId()).stream().map(CategoryDTO::getId).toList());
+        assertEquals(List.of(root.getId(), child.getId()),
+            categoryService.findBreadcrumb(child.getId()).stream().map(CategoryDTO::getId).toList());
+        assertEquals(List.of(child.getId()), categoryService.findDescendantIds(root.getId()));
+        assertFalse(categoryService.getCategoryTree().isEmpty());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void committedWrites_ShouldSwapInANewTree() {
+        CategoryDTO a = create("A", null);
+        CategoryDTO b = create("B", null);
+        CategoryDTO child = create("Child", a.getId());
+        assertEquals(List.of(a.getId(), child.getId()),
+            categoryService.findBreadcrumb(child.getId()).stream().map(CategoryDTO::getId).toList());
+
+        child.setParentId(b.getId());
+        categoryService.update(child.getId(), child);
+
+        assertEquals(List.of(b.getId(), child.getId()),
+            categoryService.findBreadcrumb(child.getId()).stream().map(CategoryDTO::getId).toList());
+        assertTrue(categoryService.findSubcategories(a.getId()).isEmpty());
+
+        categoryService.delete(child.getId());
+        assertTrue(categoryService.findSubcategories(b.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.CategoryDTO;
+import com.example.copilot.dto.CategoryTreeNodeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryTreeTest {
+
+    //        1            5
+    //      /   \          |
+    //     3     2         6
+    //     |
+    //     4
+    private static final List<CategoryTree.Row> ROWS = List.of(
+        new CategoryTree.Row(4, "Gaming", null, 3L),
+        new CategoryTree.Row(3, "Laptops", null, 1L),
+        new CategoryTree.Row(1, "Electronics", "All electronics", null),
+        new CategoryTree.Row(2, "Phones", null, 1L),
+        new CategoryTree.Row(6, "Fiction", null, 5L),
+        new CategoryTree.Row(5, "Books", null, null));
+
+    private static List<Long> ids(List<CategoryDTO> categories) {
+        return categories.stream().map(CategoryDTO::getId).toList();
+    }
+
+    @Test
+    void navigation_ShouldFollowTheHierarchyWithSiblingsOrderedById() {
+        CategoryTree tree = CategoryTree.of(ROWS);
+
+        assertEquals(6, tree.size());
+        assertEquals(List.of(1L, 5L), ids(tree.roots()));
+        assertEquals(List.of(2L, 3L), ids(tree.children(1L)));
+        assertEquals(List.of(), tree.children(4L));
+        assertEquals(List.of(), tree.children(99L));
+        assertEquals(List.of(1L, 3L, 4L), ids(tree.breadcrumb(4L)));
+        assertArrayEquals(new long[]{2, 3, 4}, tree.descendantIds(1L));
+        assertArrayEquals(new long[0], tree.descendantIds(6L));
+
+        CategoryDTO laptops = tree.get(3L);
+        assertEquals("Laptops", laptops.getName());
+        assertEquals(1L, laptops.getParentId());
+        assertEquals("All electronics", tree.get(1L).getDescription());
+    }
+
+    @Test
+    void isInSubtree_ShouldUseEulerTourIntervals() {
+        CategoryTree tree = CategoryTree.of(ROWS);
+
+        assertTrue(tree.isInSubtree(4L, 1L));
+        assertTrue(tree.isInSubtree(3L, 3L));
+        assertFalse(tree.isInSubtree(1L, 4L));
+        assertFalse(tree.isInSubtree(2L, 3L));
+        assertFalse(tree.isInSubtree(6L, 1L));
+        assertFalse(tree.isInSubtree(99L, 1L));
+    }
+
+    @Test
+    void hierarchy_ShouldNestEveryReachableCategoryOnce() {
+        List<CategoryTreeNodeDTO> hierarchy = CategoryTree.of(ROWS).hierarchy();
+
+        assertEquals(2, hierarchy.size());
+        CategoryTreeNodeDTO electronics = hierarchy.get(0);
+        assertEquals("Electronics", electronics.getName());
+        assertEquals(List.of(2L, 3L), electronics.getChildren().stream().map(CategoryTreeNodeDTO::getId).toList());
+        assertEquals(4L, electronics.getChildren().get(1).getChildren().get(0).getId());
+        assertThrows(UnsupportedOperationException.class, () -> hierarchy.add(new CategoryTreeNodeDTO()));
+    }
+
+    @Test
+    void of_ShouldDropOrphansAndCycles() {
+        List<CategoryTree.Row> rows = new ArrayList<>(ROWS);
+        rows.add(new CategoryTree.Row(7, "Orphan", null, 42L));
+        rows.add(new CategoryTree.Row(8, "Loop A", null, 9L));
+        rows.add(new CategoryTree.Row(9, "Loop B", null, 8L));
+
+        CategoryTree tree = CategoryTree.of(rows);
+
+        assertEquals(6, tree.size());
+        assertFalse(tree.contains(7L));
+        assertFalse(tree.contains(8L));
+    }
+
+    @Test
+    void descendants_ShouldMatchParentWalkOnRandomTree() {
+        Random random = new Random(7);
+        List<CategoryTree.Row> rows = new ArrayList<>();
+        Map<Long, Long> parentOf = new HashMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            Long parent = id <= 5 ? null : 1 + (long) random.nextInt((int) id - 1);
+            parentOf.put(id, parent);
+            rows.add(new CategoryTree.Row(id, "C" + id, null, parent));
+        }
+        Collections.shuffle(rows, random);
+        CategoryTree tree = CategoryTree.of(rows);
+
+        for (long ancestor = 1; ancestor <= 50; ancestor++) {
+            List<Long> expected = new ArrayList<>();
+            for (long id = 1; id <= 2_000; id++) {
+                for (Long p = parentOf.get(id); p != null; p = parentOf.get(p)) {
+                    if (p == ancestor) {
+                        expected.add(id);
+                        break;
+                    }
+                }
+            }
+            long[] actual = tree.descendantIds(ancestor);
+            Arrays.sort(actual);
+            assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), actual, "descendants of " + ancestor);
+        }
+    }
+
+    @Test
+    void search_ShouldRankExactThenPrefixThenWordThenDescriptionMatches() {
+        CategoryTree tree = CategoryTree.of(List.of(
+            new CategoryTree.Row(1, "Gaming Laptops", null, null),
+            new CategoryTree.Row(2, "Laptop Bags", null, null),
+            new CategoryTree.Row(3, "Laptop", null, null),
+            new CategoryTree.Row(4, "Accessories", "Chargers and docks for every laptop", null),
+            new CategoryTree.Row(5, "Desktops", null, null),
+            new CategoryTree.Row(6, "Café Équipement", null, null)));
+
+        assertEquals(List.of(3L, 2L, 1L, 4L), ids(tree.search("Laptop")));
+        assertEquals(List.of(1L), ids(tree.search("gam lap")));
+        assertEquals(List.of(4L), ids(tree.search("docks laptop")));
+        assertEquals(List.of(6L), ids(tree.search("cafe equip")));
+        assertEquals(List.of(), ids(tree.search("aptop")));
+        assertEquals(List.of(), ids(tree.search("  --  ")));
+    }
+}
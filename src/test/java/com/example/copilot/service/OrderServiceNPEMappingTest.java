@@ -35,6 +35,8 @@ public class OrderServiceNPEMappingTest {
     private UserRepository userRepository;
     @Mock
     private OrderItemRepository orderItemRepository;
+    @Mock
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
     @Test
     void testNullOrderItemsInMapping() {
@@ -35,6 +35,8 @@ public class OrderServiceTddTest {
     private UserRepository userRepository;
     @Mock
     private com.example.copilot.repository.OrderItemRepository orderItemRepository;
+    @Mock
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
     @Test
     void testCancelPendingOrderRestoresStock() {
@@ -34,6 +34,8 @@ public class OrderServiceTransactionTest {
     private UserRepository userRepository;
     @Mock
     private com.example.copilot.repository.OrderItemRepository orderItemRepository;
+    @Mock
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
     @Test
     void testStockDeductedEvenWhenOrderSaveFails() {
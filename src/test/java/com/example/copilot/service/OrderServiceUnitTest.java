@@ -32,6 +32,8 @@ public class OrderServiceUnitTest {
     private UserRepository userRepository;
     @Mock
     private com.example.copilot.repository.OrderItemRepository orderItemRepository;
+    @Mock
+    private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
     @Test
     void testPlaceOrderSuccess() {
@@ -74,5 +76,6 @@ public class OrderServiceUnitTest {
         assertEquals(7, product.getStock()); // 10 - 3
         verify(orderRepository).save(any(Order.class));
         verify(productRepository).saveAll(any());
+        verify(eventPublisher).publishEvent(com.example.copilot.event.ProductChangedEvent.stockChanged(2L, 99.99, 7, null));
     }
 }
@@ -0,0 +1,178 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.BulkAdjustmentResultDTO;
+import com.example.copilot.dto.PriceAdjustmentRequestDTO;
+import com.example.copilot.dto.StockSnapshotRequestDTO;
+import com.example.copilot.entity.Category;
+import com.example.copilot.entity.Product;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without the test-managed transaction so cache eviction after commit can be observed.
+ */
+@H2DataJpaTest
+@Import({ProductAdjustmentService.class, ProductAdjustmentServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "product.bulk.batch-size=2")
+public class ProductAdjustmentServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("product-details", "product-search", "product-facets");
+        }
+    }
+
+    @Autowired
+    private ProductAdjustmentService productAdjustmentService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Category category;
+    private Product cheap;
+    private Product pricey;
+    private Product other;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Adjust-" + System.nanoTime());
+        categoryRepository.save(category);
+        cheap = productRepository.save(product("Mouse", 20.0, category));
+        pricey = productRepository.save(product("Monitor", 200.0, category));
+        other = productRepository.save(product("Novel", 15.0, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(List.of(cheap.getId(), pricey.getId(), other.getId()));
+        categoryRepository.delete(category);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private static Product product(String name, double price, Category category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setStock(10);
+        product.setCategory(category);
+        return product;
+    }
+
+    private double price(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getPrice();
+    }
+
+    @Test
+    void adjustPrices_ShouldScaleCategoryAndEvictOnlyAffectedDetails() {
+        cacheManager.getCache("product-details").put(cheap.getId(), "cached");
+        cacheManager.getCache("product-details").put(other.getId(), "cached");
+        cacheManager.getCache("product-facets").put("facets", "cached");
+        PriceAdjustmentRequestDTO request = new PriceAdjustmentRequestDTO();
+        request.setMode(PriceAdjustmentRequestDTO.Mode.PERCENTAGE);
+        request.setAmount(5.0);
+        request.setCategoryId(category.getId());
+
+        BulkAdjustmentResultDTO result = productAdjustmentService.adjustPrices(request);
+
+        assertEquals(2, result.getAffectedRows());
+        assertEquals(21.0, price(cheap));
+        assertEquals(210.0, price(pricey));
+        assertEquals(15.0, price(other));
+        assertNotNull(productRepository.findById(cheap.getId()).orElseThrow().getUpdatedAt());
+        assertNull(cacheManager.getCache("product-details").get(cheap.getId()));
+        assertNotNull(cacheManager.getCache("product-details").get(other.getId()), "outside the filter");
+        assertNull(cacheManager.getCache("product-facets").get("facets"));
+    }
+
+    @Test
+    void adjustPrices_ShouldNeverScaleAPriceBelowOneCent() {
+        PriceAdjustmentRequestDTO request = new PriceAdjustmentRequestDTO();
+        request.setMode(PriceAdjustmentRequestDTO.Mode.PERCENTAGE);
+        request.setAmount(-99.99);
+        request.setCategoryId(category.getId());
+
+        productAdjustmentService.adjustPrices(request);
+
+        assertEquals(0.01, price(cheap));
+        assertEquals(0.02, price(pricey));
+    }
+
+    @Test
+    void adjustPrices_ShouldSkipAbsoluteDecreasesThatWouldGoNonPositive() {
+        cacheManager.getCache("product-details").put(cheap.getId(), "cached");
+        cacheManager.getCache("product-details").put(pricey.getId(), "cached");
+        PriceAdjustmentRequestDTO request = new PriceAdjustmentRequestDTO();
+        request.setMode(PriceAdjustmentRequestDTO.Mode.ABSOLUTE);
+        request.setAmount(-25.0);
+        request.setCategoryId(category.getId());
+
+        BulkAdjustmentResultDTO result = productAdjustmentService.adjustPrices(request);
+
+        assertEquals(1, result.getAffectedRows());
+        assertEquals(20.0, price(cheap));
+        assertEquals(175.0, price(pricey));
+        assertNotNull(cacheManager.getCache("product-details").get(cheap.getId()), "skipped, so still current");
+        assertNull(cacheManager.getCache("product-details").get(pricey.getId()));
+    }
+
+    @Test
+    void adjustPrices_ShouldRequireAFilter() {
+        PriceAdjustmentRequestDTO request = new PriceAdjustmentRequestDTO();
+        request.setMode(PriceAdjustmentRequestDTO.Mode.PERCENTAGE);
+        request.setAmount(5.0);
+
+        assertThrows(IllegalArgumentException.class, () -> productAdjustmentService.adjustPrices(request));
+    }
+
+    @Test
+    void applyStockSnapshot_ShouldUpdateInBatchesAndReportMissingIds() {
+        cacheManager.getCache("product-details").put(pricey.getId(), "cached");
+        cacheManager.getCache("product-facets").put("facets", "cached");
+        StockSnapshotRequestDTO request = new StockSnapshotRequestDTO();
+        request.setItems(List.of(item(cheap.getId(), 0), item(pricey.getId(), 42), item(-1L, 5), item(other.getId(), 7)));
+
+        BulkAdjustmentResultDTO result = productAdjustmentService.applyStockSnapshot(request);
+
+        assertEquals(3, result.getAffectedRows());
+        assertEquals(List.of(-1L), result.getMissingIds());
+        assertEquals(42, productRepository.findById(pricey.getId()).orElseThrow().getStock());
+        assertEquals(0, productRepository.findById(cheap.getId()).orElseThrow().getStock());
+        assertNotNull(productRepository.findById(cheap.getId()).orElseThrow().getUpdatedAt());
+        assertNull(cacheManager.getCache("product-details").get(pricey.getId()));
+        assertNotNull(cacheManager.getCache("product-facets").get("facets"));
+    }
+
+    private static StockSnapshotRequestDTO.Item item(Long productId, int stock) {
+        StockSnapshotRequestDTO.Item item = new StockSnapshotRequestDTO.Item();
+        item.setProductId(productId);
+        item.setStock(stock);
+        return item;
+    }
+}
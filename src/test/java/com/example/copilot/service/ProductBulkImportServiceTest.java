@@ -0,0 +1,170 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.entity.Category;
+import com.example.copilot.entity.Product;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import({ProductBulkImportService.class, ProductBulkImportServiceTest.Config.class})
+@TestPropertySource(properties = "product.bulk.batch-size=2")
+public class ProductBulkImportServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("product-details", "product-search", "product-facets");
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private ProductBulkImportService productBulkImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Category electronics;
+    private Product existing;
+
+    @BeforeEach
+    void setUp() {
+        electronics = categoryRepository.findByName("Electronics").orElseThrow();
+
+        existing = new Product();
+        existing.setName("Laptop");
+        existing.setPrice(999.0);
+        existing.setStock(5);
+        existing.setCategory(electronics);
+        productRepository.save(existing);
+        entityManager.flush();
+    }
+
+    private ProductBulkImportService.BulkImportResult importFeed(String feed, ProductBulkImportService.Format format,
+                                                                 List<ProductBulkImportService.RowError> errors) throws Exception {
+        return productBulkImportService.importProducts(
+            new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)), format, errors::add);
+    }
+
+    @Test
+    void importProducts_ShouldUpsertNdjsonInBatchesAndReportRowErrors() throws Exception {
+        cacheManager.getCache("product-details").put(existing.getId(), "stale");
+        cacheManager.getCache("product-search").put("page_laptop", "stale");
+        String feed = String.join("\n",
+            "{\"name\":\"Phone\",\"price\":499.0,\"stock\":10,\"category\":\"electronics\"}",
+            "{\"id\":" + existing.getId() + ",\"name\":\"Laptop Pro\",\"price\":1299.0,\"stock\":3}",
+            "{\"name\":\"Toaster\",\"price\":25.0,\"stock\":1,\"category\":\"Kitchen\"}",
+            "{\"name\":\"Tablet\",\"price\":-1,\"stock\":4}",
+            "{not json",
+            "",
+            "{\"id\":987654,\"name\":\"Ghost\",\"price\":1.0,\"stock\":1}",
+            "{\"name\":\"Phone\",\"price\":449.0,\"stock\":12,\"categoryId\":" + electronics.getId() + "}");
+        List<ProductBulkImportService.RowError> errors = new ArrayList<>();
+
+        ProductBulkImportService.BulkImportResult result = importFeed(feed, ProductBulkImportService.Format.NDJSON, errors);
+        entityManager.clear();
+
+        assertEquals(7, result.rowsRead());
+        assertEquals(1, result.inserted());
+        assertEquals(2, result.updated());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(3L, 4L, 5L, 7L), errors.stream().map(ProductBulkImportService.RowError::line).toList());
+
+        Product laptop = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("Laptop Pro", laptop.getName());
+        assertEquals(1299.0, laptop.getPrice());
+
+        List<Object[]> phones = productRepository.findIdsByNames(List.of("Phone"));
+        assertEquals(1, phones.size());
+        Product phone = productRepository.findById((Long) phones.get(0)[0]).orElseThrow();
+        assertEquals(449.0, phone.getPrice());
+        assertEquals(12, phone.getStock());
+        assertEquals(electronics.getId(), phone.getCategory().getId());
+
+        assertNull(cacheManager.getCache("product-details").get(existing.getId()));
+        assertNull(cacheManager.getCache("product-search").get("page_laptop"));
+    }
+
+    @Test
+    void importProducts_ShouldReadCsvWithHeader() throws Exception {
+        String feed = "name,description,price,stock,category\n"
+            + "Headphones,\"Over-ear, wireless\",199.5,7,Electronics\n"
+            + "Cable,,abc,3,Electronics\n"
+            + "Laptop,Refurbished,799,2,\n";
+        List<ProductBulkImportService.RowError> errors = new ArrayList<>();
+
+        ProductBulkImportService.BulkImportResult result = importFeed(feed, ProductBulkImportService.Format.CSV, errors);
+        entityManager.clear();
+
+        assertEquals(3, result.rowsRead());
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.updated());
+        assertEquals(1, errors.size());
+        assertEquals(3L, errors.get(0).line());
+
+        Object[] headphones = productRepository.findIdsByNames(List.of("Headphones")).get(0);
+        assertEquals("Over-ear, wireless", productRepository.findById((Long) headphones[0]).orElseThrow().getDescription());
+        Product laptop = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(799.0, laptop.getPrice());
+        assertEquals("Refurbished", laptop.getDescription());
+        assertEquals(electronics.getId(), laptop.getCategory().getId(), "an empty category column keeps the category");
+    }
+
+    @Test
+    void importProducts_ShouldRejectNamesSharedBySeveralProducts() throws Exception {
+        existing.setDescription("Original");
+        Product twin = new Product();
+        twin.setName("Laptop");
+        twin.setPrice(899.0);
+        twin.setStock(1);
+        productRepository.save(twin);
+        entityManager.flush();
+        List<ProductBulkImportService.RowError> errors = new ArrayList<>();
+
+        ProductBulkImportService.BulkImportResult result = importFeed(
+            "{\"name\":\"Laptop\",\"price\":10.0,\"stock\":1}\n"
+                + "{\"id\":" + existing.getId() + ",\"name\":\"Laptop\",\"price\":950.0,\"stock\":4}",
+            ProductBulkImportService.Format.NDJSON, errors);
+        entityManager.clear();
+
+        assertEquals(1, result.updated());
+        assertEquals(List.of(1L), errors.stream().map(ProductBulkImportService.RowError::line).toList());
+        assertEquals(899.0, productRepository.findById(twin.getId()).orElseThrow().getPrice());
+        Product laptop = productRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(950.0, laptop.getPrice());
+        assertEquals("Original", laptop.getDescription());
+    }
+}
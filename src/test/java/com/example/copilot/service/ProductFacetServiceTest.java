@@ -0,0 +1,82 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.ProductFacetsDTO;
+import com.example.copilot.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductFacetServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductFacetService productFacetService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productFacetService, "defaultPriceBoundaries", List.of(100.0, 500.0));
+    }
+
+    @Test
+    void computeFacets_ShouldAggregateCategoryAndPriceCountsFromSingleQuery() {
+        when(productRepository.countFacets(eq("laptop"), any(), any(), any(), eq(List.of(100.0, 500.0))))
+            .thenReturn(List.of(
+                new Object[]{1L, 0, 3L},
+                new Object[]{1L, 2, 1L},
+                new Object[]{2L, 1, 4L},
+                new Object[]{null, 2, 2L}
+            ));
+
+        ProductFacetsDTO facets = productFacetService.computeFacets("laptop", null, null, null, null);
+
+        assertEquals(10, facets.getTotalMatches());
+        assertEquals(4L, facets.getCategoryCounts().get(1L));
+        assertEquals(4L, facets.getCategoryCounts().get(2L));
+        assertEquals(3, facets.getPriceBuckets().size());
+        assertEquals(3L, facets.getPriceBuckets().get(0).getCount());
+        assertEquals(4L, facets.getPriceBuckets().get(1).getCount());
+        assertEquals(3L, facets.getPriceBuckets().get(2).getCount());
+        assertEquals(500.0, facets.getPriceBuckets().get(2).getFrom());
+        assertNull(facets.getPriceBuckets().get(2).getTo());
+        verify(productRepository, times(1)).countFacets(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void computeFacets_ShouldSortAndDeduplicateRequestedBoundaries() {
+        when(productRepository.countFacets(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        ProductFacetsDTO facets = productFacetService.computeFacets(null, 1L, null, null, List.of(200.0, 50.0, 200.0));
+
+        verify(productRepository).countFacets(null, 1L, null, null, List.of(50.0, 200.0));
+        assertEquals(3, facets.getPriceBuckets().size());
+        assertEquals(0, facets.getTotalMatches());
+    }
+
+    @Test
+    void computeFacets_ShouldRejectTooManyOrNonFiniteBoundaries() {
+        List<Double> tooMany = IntStream.rangeClosed(1, ProductFacetService.MAX_PRICE_BOUNDARIES + 1)
+            .mapToObj(i -> i * 10.0).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> productFacetService.computeFacets(null, null, null, null, tooMany));
+        assertThrows(IllegalArgumentException.class,
+            () -> productFacetService.computeFacets(null, null, null, null, List.of(50.0, Double.POSITIVE_INFINITY)));
+        assertThrows(IllegalArgumentException.class,
+            () -> productFacetService.computeFacets(null, null, null, null, List.of(Double.NaN)));
+        verifyNoInteractions(productRepository);
+    }
+}
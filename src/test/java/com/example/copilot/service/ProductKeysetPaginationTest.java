@@ -0,0 +1,79 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.CursorSlice;
+import com.example.copilot.dto.ProductCursor;
+import com.example.copilot.dto.ProductDTO;
+import com.example.copilot.dto.ProductSortOrder;
+import com.example.copilot.entity.Product;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductKeysetPaginationTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @Test
+    void searchProductsKeyset_ShouldFetchOneExtraRowAndReturnCursorOfLastItem() {
+        when(productRepository.findNextByPrice(any(), any(), any(), any(), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+            .thenReturn(List.of(product(1L, "A", 10.0), product(2L, "B", 20.0), product(3L, "C", 30.0)));
+
+        CursorSlice<ProductDTO> slice = productService.searchProductsKeyset(null, null, null, null, ProductSortOrder.PRICE, null, 2);
+
+        assertEquals(2, slice.getContent().size());
+        assertTrue(slice.hasNext());
+        ProductCursor next = ProductCursor.decode(slice.getNextCursor(), ProductSortOrder.PRICE);
+        assertEquals(2L, next.getId());
+        assertEquals(20.0, next.getPrice());
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void searchProductsKeyset_ShouldSeekPastCursorAndEndWithoutNextCursor() {
+        String cursor = ProductCursor.afterRelevance(2, "Gaming Laptop", 7L).encode();
+        when(productRepository.findNextByRelevance(eq("lap"), any(), any(), any(), eq(2), eq("Gaming Laptop"), eq(7L), any()))
+            .thenReturn(List.<Object[]>of(new Object[]{product(9L, "Zeta laptop", 15.0), 2}));
+
+        CursorSlice<ProductDTO> slice = productService.searchProductsKeyset("lap", null, null, null, ProductSortOrder.RELEVANCE, cursor, 2);
+
+        assertEquals(1, slice.getContent().size());
+        assertFalse(slice.hasNext());
+        assertNull(slice.getNextCursor());
+    }
+
+    @Test
+    void searchProductsKeyset_ShouldRejectCursorFromAnotherSortOrder() {
+        String cursor = ProductCursor.afterName("Laptop", 3L).encode();
+
+        assertThrows(IllegalArgumentException.class, () ->
+            productService.searchProductsKeyset(null, null, null, null, ProductSortOrder.PRICE, cursor, 10));
+        assertThrows(IllegalArgumentException.class, () ->
+            productService.searchProductsKeyset(null, null, null, null, ProductSortOrder.NAME, "not-a-cursor", 10));
+    }
+
+    private Product product(Long id, String name, Double price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setStock(5);
+        return product;
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CreateReviewRequestDTO;
+import com.example.copilot.dto.RatingHistogramDTO;
+import com.example.copilot.dto.ReviewDTO;
+import com.example.copilot.dto.UpdateReviewRequestDTO;
+import com.example.copilot.entity.Product;
+import com.example.copilot.entity.User;
+import com.example.copilot.event.ReviewChangedEvent;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.repository.UserRepository;
+import com.example.copilot.service.impl.ProductServiceImpl;
+import com.example.copilot.service.impl.ReviewServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs without the test-managed transaction so rating deltas queued after commit can be flushed.
+ */
+@H2DataJpaTest
+@Import({ReviewServiceImpl.class, ReviewEligibilityCache.class, ProductRatingAggregator.class, ProductRatingReconciler.class,
+    ProductServiceImpl.class, ProductFacetService.class, CatalogSnapshotService.class, ProductRatingAggregateTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "catalog.snapshot.enabled=false")
+public class ProductRatingAggregateTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ProductRatingAggregator aggregator;
+
+    @Autowired
+    private ProductRatingReconciler reconciler;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoSpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        when(orderService.hasUserPurchasedProduct(anyLong(), anyLong())).thenReturn(true);
+        Product product = new Product();
+        product.setName("Rated Product");
+        product.setPrice(20.0);
+        product.setStock(5);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregator.flush();
+        jdbcTemplate.update("DELETE FROM reviews");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    private Long createUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "-" + System.nanoTime() + "@example.com");
+        user.setPassword("password");
+        user.setRole("USER");
+        return userRepository.save(user).getId();
+    }
+
+    private ReviewDTO review(Long userId, int rating) {
+        CreateReviewRequestDTO request = new CreateReviewRequestDTO();
+        request.setProductId(productId);
+        request.setRating(rating);
+        request.setContent("Rated " + rating + " out of five");
+        return reviewService.createReview(userId, request);
+    }
+
+    // Read through JDBC: the bulk UPDATEs bypass the entity already in the persistence context
+    private Map<String, Object> aggregates() {
+        return jdbcTemplate.queryForMap(
+            "SELECT average_rating, review_count, rating_sum FROM products WHERE id = ?", productId);
+    }
+
+    private void assertAggregates(double average, int count, long sum) {
+        aggregator.flush();
+        Map<String, Object> row = aggregates();
+        assertEquals(average, ((Number) row.get("average_rating")).doubleValue(), 1e-9);
+        assertEquals(count, ((Number) row.get("review_count")).intValue());
+        assertEquals(sum, ((Number) row.get("rating_sum")).longValue());
+    }
+
+    @Test
+    void reviewWrites_ShouldMoveAggregatesByDelta() {
+        Long alice = createUser("Alice");
+        Long bob = createUser("Bob");
+
+        ReviewDTO first = review(alice, 5);
+        review(bob, 2);
+        assertAggregates(3.5, 2, 7);
+
+        UpdateReviewRequestDTO update = new UpdateReviewRequestDTO();
+        update.setRating(3);
+        update.setContent("Changed my mind about it");
+        reviewService.updateReview(alice, first.getId(), update);
+        assertAggregates(2.5, 2, 5);
+
+        reviewService.deleteReview(alice, first.getId());
+        assertAggregates(2.0, 1, 2);
+    }
+
+    @Test
+    void reviewWrites_ShouldMaintainStarHistogram() {
+        Long alice = createUser("Alice");
+        ReviewDTO first = review(alice, 5);
+        review(createUser("Bob"), 5);
+        review(createUser("Carol"), 2);
+
+        UpdateReviewRequestDTO update = new UpdateReviewRequestDTO();
+        update.setRating(4);
+        update.setContent("Changed my mind about it");
+        reviewService.updateReview(alice, first.getId(), update);
+        aggregator.flush();
+
+        assertEquals(List.of(0, 1, 0, 1, 1), productService.findById(productId).getRatingHistogram());
+
+        Product unrated = new Product();
+        unrated.setName("Unrated Product");
+        unrated.setPrice(1.0);
+        unrated.setStock(1);
+        Long emptyProductId = productRepository.save(unrated).getId();
+        List<RatingHistogramDTO> histograms = productService.getRatingHistograms(List.of(emptyProductId, productId, -1L));
+        assertEquals(List.of(emptyProductId, productId), histograms.stream().map(RatingHistogramDTO::getProductId).toList());
+        assertEquals(List.of(0, 0, 0, 0, 0), histograms.get(0).getCounts());
+        assertEquals(3, histograms.get(1).getTotal());
+    }
+
+    @Test
+    void flush_ShouldEvictCachedProductDetails() {
+        Cache details = cacheManager.getCache("product-details");
+        details.put(productId, productService.findById(productId));
+
+        review(createUser("Alice"), 3);
+        aggregator.flush();
+
+        assertNull(details.get(productId));
+        assertEquals(1, productService.findById(productId).getReviewCount());
+    }
+
+    @Test
+    void reviewWrites_ShouldBeQueuedAndCoalescedIntoOneUpdatePerProduct() {
+        Long alice = createUser("Alice");
+        review(alice, 5);
+        review(createUser("Bob"), 3);
+        review(createUser("Carol"), 1);
+
+        assertEquals(0, ((Number) aggregates().get("review_count")).intValue(), "not applied before the flush");
+        assertEquals(1, aggregator.getQueueDepth());
+        assertTrue(aggregator.pendingProductIds().contains(productId));
+
+        assertEquals(1, aggregator.flush());
+        assertEquals(0, aggregator.getQueueDepth());
+        assertEquals(0, aggregator.getStalenessMillis());
+        assertAggregates(3.0, 3, 9);
+    }
+
+    @Test
+    void rolledBackReview_ShouldNotMoveAggregates() {
+        Long alice = createUser("Alice");
+        review(alice, 4);
+
+        assertThrows(RuntimeException.class, () -> review(alice, 2), "duplicate review is rejected");
+        assertAggregates(4.0, 1, 4);
+    }
+
+    @Test
+    void deletingLastReview_ShouldResetAverageToZero() {
+        Long alice = createUser("Alice");
+        ReviewDTO only = review(alice, 4);
+
+        reviewService.deleteReview(alice, only.getId());
+        assertAggregates(0.0, 0, 0);
+    }
+
+    @Test
+    void savingProduct_ShouldNotOverwriteAggregates() {
+        review(createUser("Alice"), 4);
+
+        Product stale = productRepository.findById(productId).orElseThrow();
+        stale.setStock(stale.getStock() + 1);
+        productRepository.saveAndFlush(stale);
+
+        assertAggregates(4.0, 1, 4);
+    }
+
+    @Test
+    void reconcile_ShouldRepairDriftFromWritesOutsideTheService() {
+        review(createUser("Alice"), 4);
+        review(createUser("Bob"), 1);
+        assertEquals(0, reconciler.reconcile());
+
+        jdbcTemplate.update("UPDATE reviews SET rating = 5 WHERE product_id = ? AND rating = 1", productId);
+        jdbcTemplate.update("UPDATE products SET review_count = 7, rating_5_count = 0 WHERE id = ?", productId);
+
+        assertEquals(1, reconciler.reconcile());
+        assertAggregates(4.5, 2, 9);
+        assertEquals(List.of(0, 0, 0, 1, 1), productRepository.findById(productId).orElseThrow().getRatingHistogram());
+
+        // A queued delta is flushed before drift is measured, so the review is not counted twice
+        review(createUser("Carol"), 3);
+        assertEquals(0, reconciler.reconcile());
+        assertAggregates(4.0, 3, 12);
+    }
+
+    @Test
+    void reconcile_ShouldUndoARepairWhoseReviewDeltaArrivesMeanwhile() {
+        Long alice = createUser("Alice");
+        // Committed, but its after-commit listener has not queued the delta yet
+        jdbcTemplate.update("INSERT INTO reviews (content, rating, product_id, user_id) VALUES ('Late listener', 4, ?, ?)",
+            productId, alice);
+        Long reviewId = jdbcTemplate.queryForObject("SELECT id FROM reviews WHERE user_id = ?", Long.class, alice);
+        // The spy delegates to the repository proxy, so the repair is replayed in the reconciler's transaction
+        doAnswer(invocation -> {
+            int repaired = jdbcTemplate.update("UPDATE products SET average_rating = 4.0, rating_sum = 4, review_count = 1, "
+                + "rating_4_count = 1 WHERE id = ?", productId);
+            aggregator.onReviewChanged(ReviewChangedEvent.created(productId, reviewId, alice, 4, "Late listener"));
+            return repaired;
+        }).when(productRepository).repairRatingAggregates(productId);
+
+        assertEquals(0, reconciler.reconcile(), "the repair already counts the review the delta adds");
+        assertAggregates(4.0, 1, 4);
+        assertEquals(0, reconciler.reconcile());
+    }
+}
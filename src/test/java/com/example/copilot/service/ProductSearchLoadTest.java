@@ -0,0 +1,127 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.entity.Category;
+import com.example.copilot.entity.Product;
+import com.example.copilot.repository.CategoryRepository;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.service.impl.ProductServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load comparison between the Page-based search (page query + COUNT) and the count-free Slice search.
+ * The default suite checks statements per request on a small catalog; the benchmark-tagged test
+ * measures database time per request on a larger one.
+ */
+@H2DataJpaTest
+@Import({ProductServiceImpl.class, ProductFacetService.class, CatalogSnapshotService.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ProductSearchLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchLoadTest.class);
+
+    private static final int PRODUCTS = 300;
+    private static final int BENCHMARK_PRODUCTS = 5_000;
+    private static final int REQUESTS = 20;
+    private static final int BENCHMARK_REQUESTS = 200;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void seed(int count) {
+        Category category = new Category();
+        category.setName("Load-" + System.nanoTime());
+        categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName((i % 7 == 0 ? "Laptop " : "Phone ") + i);
+            product.setDescription("Generated product number " + i);
+            product.setPrice(10.0 + i % 500);
+            product.setStock(i % 50);
+            product.setCategory(category);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        productRepository.flush();
+    }
+
+    // A full second page, so the Page search cannot skip its COUNT
+    @Test
+    void sliceSearch_ShouldIssueHalfTheStatementsOfPageSearch() {
+        seed(PRODUCTS);
+        LoadResult page = measure(REQUESTS, () -> productService.searchProducts("laptop", null, null, null, PageRequest.of(1, 20)));
+        LoadResult slice = measure(REQUESTS, () -> productService.searchProductsSlice("laptop", null, null, null, PageRequest.of(1, 20)));
+
+        assertEquals(2.0, page.statementsPerRequest(), 0.01, "page search runs the page query plus a COUNT");
+        assertEquals(1.0, slice.statementsPerRequest(), 0.01, "slice search runs only the page query");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void searchBenchmark_DatabaseTimePerRequest() {
+        seed(BENCHMARK_PRODUCTS);
+        LoadResult page = measure(BENCHMARK_REQUESTS, () -> productService.searchProducts("laptop", null, null, null, PageRequest.of(3, 20)));
+        LoadResult slice = measure(BENCHMARK_REQUESTS, () -> productService.searchProductsSlice("laptop", null, null, null, PageRequest.of(3, 20)));
+
+        log.info("Page search: {} statements, {} ms database time per request", page.statementsPerRequest(), page.dbMillisPerRequest());
+        log.info("Slice search: {} statements, {} ms database time per request", slice.statementsPerRequest(), slice.dbMillisPerRequest());
+    }
+
+    private LoadResult measure(int requests, Runnable search) {
+        search.run(); // warm up query plan cache
+        statistics.clear();
+        for (int i = 0; i < requests; i++) {
+            search.run();
+        }
+        // Query execution time as Hibernate records it, summed over every query string issued
+        long dbMillis = 0;
+        for (String query : statistics.getQueries()) {
+            dbMillis += statistics.getQueryStatistics(query).getExecutionTotalTime();
+        }
+        return new LoadResult(requests, statistics.getPrepareStatementCount(), dbMillis);
+    }
+
+    private record LoadResult(int requests, long statements, long dbMillis) {
+        double statementsPerRequest() {
+            return (double) statements / requests;
+        }
+
+        double dbMillisPerRequest() {
+            return (double) dbMillis / requests;
+        }
+    }
+}
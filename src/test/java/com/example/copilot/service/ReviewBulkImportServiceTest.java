@@ -0,0 +1,209 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.entity.Product;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.repository.ReviewImportCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import({ReviewBulkImportService.class, ProductRatingReconciler.class, ProductRatingAggregator.class,
+    ReviewSearchService.class, ReviewEligibilityCache.class, ReviewBulkImportServiceTest.Config.class})
+@TestPropertySource(properties = "review.bulk.batch-size=2")
+public class ReviewBulkImportServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("product-details");
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    @Autowired
+    private ReviewBulkImportService reviewBulkImportService;
+
+    @Autowired
+    private ReviewImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private long[] users;
+    private long productA;
+    private long productB;
+
+    @BeforeEach
+    void setUp() {
+        users = new long[4];
+        for (int i = 0; i < users.length; i++) {
+            jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES (?, ?, 'password', 'USER')",
+                "Legacy " + i, "legacy" + i + "@example.com");
+            users[i] = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "legacy" + i + "@example.com");
+        }
+        productA = product("Legacy Lamp");
+        productB = product("Legacy Desk");
+    }
+
+    private long product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setStock(1);
+        return productRepository.saveAndFlush(product).getId();
+    }
+
+    private String line(long userId, long productId, int rating) {
+        return String.format("{\"userId\":%d,\"productId\":%d,\"rating\":%d,\"content\":\"Legacy review %d/%d\",\"createdAt\":\"2019-05-0%dT10:00:00\"}",
+            userId, productId, rating, userId, productId, rating);
+    }
+
+    private String feed() {
+        return String.join("\n",
+            line(users[0], productA, 5),
+            line(users[1], productA, 4),
+            line(users[2], productA, 1),
+            line(users[0], productB, 3),
+            line(users[1], productB, 3),
+            line(users[3], productA, 5)) + "\n";
+    }
+
+    private ReviewBulkImportService.BulkImportResult importFeed(String jobId, InputStream in, List<ReviewBulkImportService.RowError> errors) throws IOException {
+        ReviewBulkImportService.BulkImportResult result = reviewBulkImportService.importReviews(
+            jobId, in, ReviewBulkImportService.Format.NDJSON, errors::add);
+        entityManager.clear();
+        return result;
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importReviews_ShouldInsertInBatchesAndRecomputeRatingsOnce() throws IOException {
+        long untouched = product("Legacy Chair");
+        jdbcTemplate.update("UPDATE products SET review_count = 7 WHERE id = ?", untouched);
+        List<ReviewBulkImportService.RowError> errors = new ArrayList<>();
+        ReviewBulkImportService.BulkImportResult result = importFeed("job-ok", stream(feed()), errors);
+
+        assertEquals(6, result.inserted());
+        assertEquals(0, result.failed());
+        assertEquals(3, result.batches());
+        assertEquals(2, result.productsRecomputed());
+        assertTrue(errors.isEmpty());
+
+        Product lamp = productRepository.findById(productA).orElseThrow();
+        assertEquals(4, lamp.getReviewCount());
+        assertEquals(3.75, lamp.getAverageRating(), 1e-9);
+        assertEquals(List.of(1, 0, 0, 1, 2), lamp.getRatingHistogram());
+        assertEquals(2, productRepository.findById(productB).orElseThrow().getReviewCount());
+        assertEquals(7, productRepository.findById(untouched).orElseThrow().getReviewCount(),
+            "only products the job wrote reviews for are recomputed");
+        assertEquals(6L, checkpointRepository.findById("job-ok").orElseThrow().getRowsImported());
+        assertEquals("2019-05-05T10:00", jdbcTemplate.queryForObject(
+            "SELECT created_at FROM reviews WHERE user_id = ? AND product_id = ?", java.sql.Timestamp.class, users[0], productA)
+            .toLocalDateTime().toString());
+    }
+
+    @Test
+    void importReviews_ShouldRejectInvalidAndDuplicateRowsInMemory() throws IOException {
+        jdbcTemplate.update("INSERT INTO reviews (content, rating, product_id, user_id) VALUES ('Already here', 4, ?, ?)",
+            productB, users[3]);
+        String body = String.join("\n",
+            line(users[0], productA, 5),
+            line(users[0], productA, 2),           // duplicate within the feed
+            line(users[3], productB, 2),           // duplicate of an existing review
+            line(999_999, productA, 3),            // unknown user
+            line(users[1], 999_999, 3),            // unknown product
+            line(users[2], productA, 9),           // rating out of range
+            "{not json");
+
+        List<ReviewBulkImportService.RowError> errors = new ArrayList<>();
+        ReviewBulkImportService.BulkImportResult result = importFeed("job-invalid", stream(body), errors);
+
+        assertEquals(1, result.inserted());
+        assertEquals(6, result.failed());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L), errors.stream().map(ReviewBulkImportService.RowError::line).toList());
+        assertTrue(errors.get(0).error().contains("already reviewed"));
+        assertTrue(errors.get(3).error().startsWith("Product not found"));
+    }
+
+    @Test
+    void importReviews_ShouldResumeAfterLastCommittedBatch() throws IOException {
+        String body = feed();
+        int failAt = body.indexOf('\n', body.indexOf('\n', body.indexOf('\n') + 1) + 1) + 10; // inside line 4
+        InputStream failing = new FilterInputStream(stream(body)) {
+            private int read;
+
+            // Keeps the decoder from reading ahead past the lines that are already available
+            @Override
+            public int available() {
+                return 0;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (read >= failAt) {
+                    throw new IOException("connection reset");
+                }
+                int n = super.read(b, off, Math.min(len, failAt - read));
+                read += Math.max(n, 0);
+                return n;
+            }
+        };
+
+        List<ReviewBulkImportService.RowError> errors = new ArrayList<>();
+        assertThrows(IOException.class, () -> importFeed("job-resume", failing, errors));
+        assertEquals(2L, checkpointRepository.findById("job-resume").orElseThrow().getLastLine(),
+            "line 3 was read but its batch never committed");
+        assertEquals(List.of(productA), jdbcTemplate.queryForList(
+            "SELECT product_id FROM review_import_checkpoint_products WHERE job_id = 'job-resume'", Long.class));
+
+        ReviewBulkImportService.BulkImportResult resumed = importFeed("job-resume", stream(body), errors);
+
+        assertEquals(2, resumed.resumedAfterLine());
+        assertEquals(4, resumed.inserted());
+        assertEquals(2, resumed.productsRecomputed());
+        assertTrue(errors.isEmpty());
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Integer.class));
+        assertEquals(4, productRepository.findById(productA).orElseThrow().getReviewCount());
+    }
+
+    @Test
+    void importReviews_ShouldRequireJobId() {
+        assertThrows(IllegalArgumentException.class,
+            () -> reviewBulkImportService.importReviews(" ", stream(""), ReviewBulkImportService.Format.NDJSON, error -> { }));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.event.ReviewChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import(ReviewEligibilityCache.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ReviewEligibilityCacheTest {
+
+    @Autowired
+    private ReviewEligibilityCache eligibilityCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long userId;
+    private long delivered;
+    private long reviewed;
+    private long pending;
+    private long neverOrdered;
+
+    @BeforeEach
+    void setUp() {
+        eligibilityCache.evictAll();
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES ('Shopper', ?, 'password', 'USER')",
+            "shopper-" + System.nanoTime() + "@example.com");
+        userId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        delivered = insertProduct("Delivered Kettle");
+        reviewed = insertProduct("Reviewed Toaster");
+        pending = insertProduct("Pending Blender");
+        neverOrdered = insertProduct("Unordered Mixer");
+
+        insertOrder("DELIVERED", delivered, reviewed);
+        insertOrder("PENDING", pending);
+        insertReview(reviewed);
+    }
+
+    private long insertProduct(String name) {
+        jdbcTemplate.update("INSERT INTO products (name, price, stock) VALUES (?, 20.0, 5)", name);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+    }
+
+    private void insertOrder(String status, long... productIds) {
+        jdbcTemplate.update("INSERT INTO orders (user_id, order_date, status) VALUES (?, CURRENT_TIMESTAMP, ?)", userId, status);
+        long orderId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        for (long productId : productIds) {
+            jdbcTemplate.update("INSERT INTO order_items (order_id, product_id, quantity, price) VALUES (?, ?, 1, 20.0)",
+                orderId, productId);
+        }
+    }
+
+    private void insertReview(long productId) {
+        jdbcTemplate.update("INSERT INTO reviews (content, rating, product_id, user_id) VALUES ('Works well', 4, ?, ?)",
+            productId, userId);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void canReview_ShouldRequireDeliveredPurchaseAndNoReview() {
+        assertTrue(eligibilityCache.canReview(userId, delivered));
+        assertFalse(eligibilityCache.canReview(userId, reviewed));
+        assertFalse(eligibilityCache.canReview(userId, pending));
+        assertFalse(eligibilityCache.canReview(userId, neverOrdered));
+    }
+
+    @Test
+    void canReview_ShouldLoadEachUserOnce() {
+        Statistics statistics = statistics();
+
+        for (int i = 0; i < 10; i++) {
+            eligibilityCache.canReview(userId, delivered);
+            eligibilityCache.canReview(userId, List.of(delivered, reviewed, pending));
+        }
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "one purchased-ids and one reviewed-ids query");
+    }
+
+    @Test
+    void canReview_ShouldAnswerAListingPageInRequestOrder() {
+        Map<Long, Boolean> page = eligibilityCache.canReview(userId, List.of(neverOrdered, delivered, reviewed, delivered));
+
+        assertEquals(List.of(neverOrdered, delivered, reviewed), List.copyOf(page.keySet()));
+        assertEquals(List.of(false, true, false), List.copyOf(page.values()));
+    }
+
+    @Test
+    void reviewWrites_ShouldEvictTheAuthor() {
+        assertTrue(eligibilityCache.canReview(userId, delivered));
+
+        insertReview(delivered);
+        assertTrue(eligibilityCache.canReview(userId, delivered), "served from the cache until evicted");
+
+        eligibilityCache.onReviewChanged(ReviewChangedEvent.created(delivered, 1L, userId, 5, "Great kettle"));
+        assertFalse(eligibilityCache.canReview(userId, delivered));
+
+        jdbcTemplate.update("DELETE FROM reviews WHERE user_id = ? AND product_id = ?", userId, reviewed);
+        eligibilityCache.onReviewChanged(ReviewChangedEvent.deleted(reviewed, 2L, userId, 4));
+        assertTrue(eligibilityCache.canReview(userId, reviewed));
+    }
+
+    @Test
+    void evict_ShouldPickUpNewlyDeliveredOrders() {
+        assertFalse(eligibilityCache.canReview(userId, pending));
+
+        jdbcTemplate.update("UPDATE orders SET status = 'DELIVERED' WHERE status = 'PENDING' AND user_id = ?", userId);
+        eligibilityCache.evict(userId);
+
+        assertTrue(eligibilityCache.canReview(userId, pending));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.CursorSlice;
+import com.example.copilot.dto.ReviewDTO;
+import com.example.copilot.service.impl.ReviewServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import({ReviewServiceImpl.class, ReviewEligibilityCache.class})
+public class ReviewFeedTest {
+
+    private static final int REVIEWS = 1_250;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final Comparator<ReviewDTO> NEWEST_FIRST =
+        Comparator.comparing(ReviewDTO::getCreatedAt).thenComparing(ReviewDTO::getId).reversed();
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+    private long firstUserId;
+
+    // Every tenth review shares its timestamp with the next, so the id tie-breaker is exercised
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO products (name, price, stock) VALUES ('Feed Product', 9.0, 1)");
+        productId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+
+        List<Object[]> users = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            users.add(new Object[]{"Feed User " + i, "feed" + i + "-" + System.nanoTime() + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, role) VALUES (?, ?, 'password', 'USER')", users);
+        firstUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE name LIKE 'Feed User %'", Long.class);
+
+        List<Object[]> reviews = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            Timestamp createdAt = Timestamp.valueOf(BASE.plusMinutes(i - (i % 10 == 1 ? 1 : 0)));
+            reviews.add(new Object[]{"Feed review number " + i, 1 + i % 5, productId, firstUserId + i, createdAt});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO reviews (content, rating, product_id, user_id, created_at) VALUES (?, ?, ?, ?, ?)", reviews);
+    }
+
+    @Test
+    void productFeed_ShouldWalkEveryReviewOnceNewestFirst() {
+        List<ReviewDTO> walked = new ArrayList<>();
+        String cursor = null;
+        int slices = 0;
+        do {
+            CursorSlice<ReviewDTO> slice = reviewService.getProductReviewFeed(productId, cursor, 100);
+            assertTrue(slice.getContent().size() <= 100);
+            walked.addAll(slice.getContent());
+            cursor = slice.getNextCursor();
+            assertEquals(slice.hasNext(), cursor != null);
+            slices++;
+        } while (cursor != null);
+
+        assertEquals(REVIEWS, walked.size());
+        assertEquals(REVIEWS, new HashSet<>(walked.stream().map(ReviewDTO::getId).toList()).size());
+        assertEquals(walked.stream().sorted(NEWEST_FIRST).toList(), walked);
+        assertEquals((REVIEWS + 99) / 100, slices);
+        assertEquals("Feed Product", walked.get(0).getProductName());
+    }
+
+    @Test
+    void userFeed_ShouldReturnTheUsersReviews() {
+        CursorSlice<ReviewDTO> slice = reviewService.getUserReviewFeed(firstUserId, null, 10);
+
+        assertEquals(1, slice.getContent().size());
+        assertFalse(slice.hasNext());
+        assertNull(slice.getNextCursor());
+        assertEquals("Feed User 0", slice.getContent().get(0).getUserName());
+    }
+
+    @Test
+    void feed_ShouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> reviewService.getProductReviewFeed(productId, "not-a-cursor", 10));
+    }
+
+    @Test
+    void export_ShouldStreamEveryReviewAcrossBatches() {
+        List<Long> ids = new ArrayList<>();
+        long exported = reviewService.exportProductReviews(productId, review -> ids.add(review.getId()));
+
+        assertEquals(REVIEWS, exported);
+        assertEquals(REVIEWS, new HashSet<>(ids).size());
+        List<ReviewDTO> firstSlice = reviewService.getProductReviewFeed(productId, null, 5).getContent();
+        assertEquals(firstSlice.stream().map(ReviewDTO::getId).toList(), ids.subList(0, 5));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.ReviewDTO;
+import com.example.copilot.entity.Product;
+import com.example.copilot.entity.Review;
+import com.example.copilot.entity.User;
+import com.example.copilot.repository.ProductRepository;
+import com.example.copilot.repository.ReviewRepository;
+import com.example.copilot.repository.UserRepository;
+import com.example.copilot.service.impl.ReviewServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements a 100-review listing issues: the projection queries join product and user
+ * names in, where mapping entities initializes each review's LAZY user (and product) separately.
+ */
+@H2DataJpaTest
+@Import({ReviewServiceImpl.class, ReviewEligibilityCache.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ReviewListingQueryCountTest {
+
+    private static final int REVIEWS = 100;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long productId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Product product = new Product();
+        product.setName("Reviewed Product");
+        product.setPrice(15.0);
+        product.setStock(3);
+        product = productRepository.save(product);
+        productId = product.getId();
+
+        List<Review> reviews = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            User user = new User();
+            user.setName("Reviewer " + i);
+            user.setEmail("reviewer" + i + "-" + System.nanoTime() + "@example.com");
+            user.setPassword("password");
+            user.setRole("USER");
+            user = userRepository.save(user);
+            if (i == 0) {
+                userId = user.getId();
+            }
+
+            Review review = new Review();
+            review.setContent("Review number " + i + " of the product");
+            review.setRating(1 + i % 5);
+            review.setProduct(product);
+            review.setUser(user);
+            reviews.add(review);
+        }
+        reviewRepository.saveAll(reviews);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagedListing_ShouldIssuePageAndCountQueriesOnly() {
+        statistics.clear();
+        Page<ReviewDTO> page = reviewService.getReviewsByProductId(productId, PageRequest.of(0, REVIEWS, Sort.by("createdAt").descending()));
+
+        assertEquals(REVIEWS, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(dto -> "Reviewed Product".equals(dto.getProductName())));
+        assertTrue(page.getContent().stream().allMatch(dto -> dto.getUserName().startsWith("Reviewer ")));
+        assertTrue(statistics.getPrepareStatementCount() <= 2, "page and count, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listListings_ShouldIssueOneQueryEach() {
+        statistics.clear();
+        List<ReviewDTO> byProduct = reviewService.getReviewsByProductId(productId);
+        assertEquals(REVIEWS, byProduct.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        List<ReviewDTO> byUser = reviewService.getReviewsByUserId(userId);
+        assertEquals(1, byUser.size());
+        assertEquals("Reviewer 0", byUser.get(0).getUserName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void entityListing_ShouldIssueAQueryPerLazyAssociation() {
+        statistics.clear();
+        for (Review review : reviewRepository.findByProductId(productId)) {
+            review.getProduct().getName();
+            review.getUser().getName();
+        }
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements > REVIEWS, "one select per distinct user plus the product");
+    }
+}
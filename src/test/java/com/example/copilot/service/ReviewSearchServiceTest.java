@@ -0,0 +1,111 @@
+package com.example.copilot.service;
+
+import com.example.copilot.H2DataJpaTest;
+import com.example.copilot.dto.ReviewDTO;
+import com.example.copilot.event.ReviewChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@H2DataJpaTest
+@Import(ReviewSearchService.class)
+@TestPropertySource(properties = "review.search.max-products=1")
+public class ReviewSearchServiceTest {
+
+    @Autowired
+    private ReviewSearchService reviewSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+    private long otherProductId;
+
+    @BeforeEach
+    void setUp() {
+        reviewSearchService.invalidateAll();
+        productId = insertProduct("Search Laptop");
+        otherProductId = insertProduct("Search Phone");
+    }
+
+    private long insertProduct(String name) {
+        jdbcTemplate.update("INSERT INTO products (name, price, stock) VALUES (?, 9.0, 1)", name);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+    }
+
+    // One user per review: a user can review a product only once
+    private long insertReview(long product, String content) {
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES ('Searcher', ?, 'password', 'USER')",
+            "searcher-" + System.nanoTime() + "@example.com");
+        long userId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        jdbcTemplate.update("INSERT INTO reviews (content, rating, product_id, user_id) VALUES (?, 4, ?, ?)", content, product, userId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM reviews", Long.class);
+    }
+
+    private List<Long> search(long product, String query) {
+        return reviewSearchService.search(product, query, PageRequest.of(0, 10)).getContent().stream()
+            .map(ReviewDTO::getId).toList();
+    }
+
+    @Test
+    void search_ShouldLoadProductOnFirstSearchAndHydrateRankedPage() {
+        long weak = insertReview(productId, "Battery is fine, keyboard is great, screen is great, speakers are great");
+        long strong = insertReview(productId, "Battery life: best battery I have had");
+        insertReview(productId, "Screen is too dim");
+        insertReview(otherProductId, "Battery life is awful");
+
+        Page<ReviewDTO> page = reviewSearchService.search(productId, "battery life", PageRequest.of(0, 10));
+
+        assertEquals(List.of(strong, weak), page.getContent().stream().map(ReviewDTO::getId).toList());
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Search Laptop", page.getContent().get(0).getProductName());
+        assertEquals("Searcher", page.getContent().get(0).getUserName());
+    }
+
+    @Test
+    void onReviewChanged_ShouldMaintainLoadedIndex() {
+        long first = insertReview(productId, "Quiet fan");
+        assertEquals(List.of(first), search(productId, "fan"));
+
+        long second = insertReview(productId, "Fan noise is noticeable");
+        reviewSearchService.onReviewChanged(ReviewChangedEvent.created(productId, second, null, 4, "Fan noise is noticeable"));
+        assertEquals(2, search(productId, "fan").size());
+
+        jdbcTemplate.update("UPDATE reviews SET content = 'Quiet keyboard' WHERE id = ?", first);
+        reviewSearchService.onReviewChanged(ReviewChangedEvent.updated(productId, first, null, 4, 4, "Quiet keyboard"));
+        assertEquals(List.of(second), search(productId, "fan"));
+        assertEquals(List.of(first), search(productId, "keyboard"));
+
+        reviewSearchService.onReviewChanged(ReviewChangedEvent.deleted(productId, second, null, 4));
+        assertTrue(search(productId, "fan").isEmpty());
+    }
+
+    @Test
+    void search_ShouldKeepAtMostMaxProductsIndexed() {
+        insertReview(productId, "Sturdy hinge");
+        long phoneReview = insertReview(otherProductId, "Sturdy case");
+
+        search(productId, "sturdy");
+        assertEquals(List.of(phoneReview), search(otherProductId, "sturdy"));
+        assertEquals(1, reviewSearchService.indexedProducts());
+
+        // Events for products that are not indexed are ignored; the next load reads the table
+        long later = insertReview(productId, "Sturdy keyboard");
+        reviewSearchService.onReviewChanged(ReviewChangedEvent.created(productId, later, null, 4, "Sturdy keyboard"));
+        assertEquals(2, search(productId, "sturdy").size());
+    }
+
+    @Test
+    void search_ShouldRejectQueriesWithoutWords() {
+        assertThrows(IllegalArgumentException.class, () -> reviewSearchService.search(productId, " the ! ", PageRequest.of(0, 10)));
+    }
+}
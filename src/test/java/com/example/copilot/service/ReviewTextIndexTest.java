@@ -0,0 +1,128 @@
+package com.example.copilot.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewTextIndexTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewTextIndexTest.class);
+
+    private static long[] ids(ReviewTextIndex.Hits hits) {
+        return hits.reviewIds();
+    }
+
+    @Test
+    void tokenize_ShouldLowerCaseSplitAndDropStopWords() {
+        assertEquals(List.of("battery", "life", "great", "2h", "charge"),
+            ReviewTextIndex.tokenize("The BATTERY-life is great: a 2h charge!"));
+        assertTrue(ReviewTextIndex.tokenize("  the a !").isEmpty());
+        assertTrue(ReviewTextIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void search_ShouldRankByBm25() {
+        ReviewTextIndex index = new ReviewTextIndex();
+        index.upsert(1, "Battery life is poor and the screen is dim");
+        index.upsert(2, "Battery battery battery: the battery life is amazing");
+        index.upsert(3, "Great screen");
+        index.upsert(4, "Decent keyboard, short battery life, loud fans, heavy charger, flimsy hinge, glossy lid");
+        index.upsert(5, "Nice sound");
+
+        ReviewTextIndex.Hits hits = index.search(ReviewTextIndex.tokenize("battery life"), 0, 10);
+
+        assertEquals(3, hits.total());
+        // Most occurrences first; among single occurrences the shorter review ranks higher
+        assertArrayEquals(new long[]{2, 1, 4}, ids(hits));
+        // Same term frequency: the shorter review is the better match
+        assertArrayEquals(new long[]{3, 1}, ids(index.search(ReviewTextIndex.tokenize("screen"), 0, 10)));
+    }
+
+    @Test
+    void search_ShouldPageAndBreakTiesNewestFirst() {
+        ReviewTextIndex index = new ReviewTextIndex();
+        for (long id = 1; id <= 25; id++) {
+            index.upsert(id, "solid build");
+        }
+
+        assertArrayEquals(new long[]{25, 24, 23, 22, 21, 20, 19, 18, 17, 16}, ids(index.search(List.of("build"), 0, 10)));
+        assertArrayEquals(new long[]{5, 4, 3, 2, 1}, ids(index.search(List.of("build"), 20, 10)));
+        ReviewTextIndex.Hits beyond = index.search(List.of("build"), 30, 10);
+        assertEquals(0, beyond.reviewIds().length);
+        assertEquals(25, beyond.total());
+        assertEquals(0, index.search(List.of("unknown"), 0, 10).total());
+    }
+
+    @Test
+    void upsertAndRemove_ShouldReplaceIndexedText() {
+        ReviewTextIndex index = new ReviewTextIndex();
+        index.upsert(1, "Loud fan");
+        index.upsert(2, "Quiet fan");
+
+        index.upsert(1, "Quiet after the firmware update");
+        assertArrayEquals(new long[]{2}, ids(index.search(List.of("fan"), 0, 10)));
+        assertEquals(2, index.search(List.of("quiet"), 0, 10).total());
+        assertEquals(0, index.search(List.of("loud"), 0, 10).total());
+
+        assertTrue(index.remove(2));
+        assertFalse(index.remove(2));
+        assertEquals(0, index.search(List.of("fan"), 0, 10).total());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_ShouldCompactOnceTombstonesDominate() {
+        ReviewTextIndex index = new ReviewTextIndex();
+        for (long id = 1; id <= 5_000; id++) {
+            index.upsert(id, (id % 2 == 0 ? "even" : "odd") + " review number " + id);
+        }
+        for (long id = 1; id <= 4_000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1_000, index.size());
+        ReviewTextIndex.Hits odd = index.search(List.of("odd"), 0, 3);
+        assertEquals(500, odd.total());
+        assertArrayEquals(new long[]{4999, 4997, 4995}, ids(odd));
+        index.upsert(4999, "now even");
+        assertEquals(501, index.search(List.of("even"), 0, 1).total());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void searchBenchmark_ProductWith100kReviews() {
+        String[] vocabulary = {"battery", "life", "screen", "bright", "keyboard", "fan", "loud", "quiet", "build",
+            "solid", "price", "value", "charger", "hinge", "speaker", "camera", "sharp", "weight", "light", "heavy"};
+        Random random = new Random(42);
+        ReviewTextIndex index = new ReviewTextIndex();
+        for (long id = 1; id <= 100_000; id++) {
+            StringBuilder text = new StringBuilder();
+            int words = 5 + random.nextInt(30);
+            for (int w = 0; w < words; w++) {
+                text.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+            }
+            index.upsert(id, text.toString());
+        }
+        List<String> query = ReviewTextIndex.tokenize("battery life");
+        for (int i = 0; i < 20; i++) {
+            index.search(query, 0, 10); // warm up
+        }
+
+        int runs = 50;
+        long start = System.nanoTime();
+        ReviewTextIndex.Hits hits = null;
+        for (int i = 0; i < runs; i++) {
+            hits = index.search(query, 0, 10);
+        }
+        double averageMillis = (System.nanoTime() - start) / 1e6 / runs;
+        log.info("BM25 search over 100k reviews: {} ms per query, {} matches", averageMillis, hits.total());
+
+        assertEquals(10, hits.reviewIds().length);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.copilot.service;
+
+import com.example.copilot.dto.SearchCountDTO;
+import com.example.copilot.event.CatalogChangedEvent;
+import com.example.copilot.event.ProductChangedEvent;
+import com.example.copilot.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SearchCountEstimatorTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SearchCountEstimator estimator = new SearchCountEstimator(productRepository);
+
+    @AfterEach
+    void tearDown() {
+        estimator.shutdown();
+    }
+
+    @Test
+    void estimate_ShouldReportCachedCountsAsExact() {
+        when(productRepository.countSearchProducts("laptop", null, null, null)).thenReturn(42L);
+
+        SearchCountDTO first = estimator.estimate("laptop", null, null, null);
+        assertEquals(SearchCountDTO.Source.PENDING, first.getSource());
+        estimator.computeAsync("laptop_null_null_null", "laptop", null, null, null).join();
+
+        SearchCountDTO second = estimator.estimate("laptop", null, null, null);
+        assertEquals(SearchCountDTO.Source.CACHED, second.getSource());
+        assertEquals(42L, second.getCount());
+        assertFalse(second.isApproximate());
+    }
+
+    @Test
+    void computeAsync_ShouldRunOneCountPerKeyAndAllowTheNextOnceDone() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.countSearchProducts(any(), any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 7L;
+        });
+
+        CompletableFuture<Long> first = estimator.computeAsync("k", "phone", null, null, null);
+        CompletableFuture<Long> second = estimator.computeAsync("k", "phone", null, null, null);
+        assertSame(first, second);
+        release.countDown();
+        assertEquals(7L, first.join());
+
+        estimator.computeAsync("k", "phone", null, null, null).join();
+        verify(productRepository, times(2)).countSearchProducts("phone", null, null, null);
+    }
+
+    @Test
+    void productAndCatalogChanges_ShouldDropCachedCountsButStockChangesShouldNot() {
+        when(productRepository.countSearchProducts("laptop", null, null, null)).thenReturn(42L);
+        estimator.computeAsync("laptop_null_null_null", "laptop", null, null, null).join();
+
+        estimator.onProductChanged(ProductChangedEvent.stockChanged(1L, 10.0, 3, null));
+        assertEquals(SearchCountDTO.Source.CACHED, estimator.estimate("laptop", null, null, null).getSource());
+
+        estimator.onProductChanged(ProductChangedEvent.created(2L, 10.0, 3, null));
+        assertEquals(SearchCountDTO.Source.PENDING, estimator.estimate("laptop", null, null, null).getSource());
+
+        estimator.computeAsync("laptop_null_null_null", "laptop", null, null, null).join();
+        estimator.onCatalogChanged(new CatalogChangedEvent("bulk import"));
+        assertEquals(SearchCountDTO.Source.PENDING, estimator.estimate("laptop", null, null, null).getSource());
+    }
+
+    @Test
+    void computeAsync_ShouldNotCacheACountStartedBeforeAChange() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.countSearchProducts(any(), any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 7L;
+        });
+
+        CompletableFuture<Long> stale = estimator.computeAsync("phone_null_null_null", "phone", null, null, null);
+        estimator.onCatalogChanged(new CatalogChangedEvent("price adjustment"));
+        release.countDown();
+        stale.join();
+
+        assertEquals(SearchCountDTO.Source.PENDING, estimator.estimate("phone", null, null, null).getSource());
+    }
+}